@@ -3,6 +3,7 @@ plugins {
     id("maven-publish")
     id("signing")
     id("net.thebugmc.gradle.sonatype-central-portal-publisher") version "1.2.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.github.wasabithumb"
@@ -0,0 +1,72 @@
+package io.github.wasabithumb.yandisk4j.node;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import io.github.wasabithumb.yandisk4j.util.JsonUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a listing page through a {@link JsonObject} tree against {@link NodeListDecoder}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeListDecoderBenchmark {
+
+    @Param({ "20", "1000" })
+    public int size;
+
+    private final Gson gson = new Gson();
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("{\"items\":[");
+        for (int i=0; i < this.size; i++) {
+            if (i != 0) sb.append(',');
+            sb.append("{\"antivirus_status\":\"clean\",\"size\":").append(i * 1024L)
+                    .append(",\"comment_ids\":{\"private_resource\":\"").append(i).append("\",\"public_resource\":\"").append(i).append("\"}")
+                    .append(",\"name\":\"file").append(i).append(".jpg\"")
+                    .append(",\"exif\":{\"date_time\":\"2024-01-01T00:00:00+00:00\",\"gps_longitude\":37.6,\"gps_latitude\":55.7}")
+                    .append(",\"created\":\"2024-01-01T00:00:00+00:00\"")
+                    .append(",\"resource_id\":\"123456:").append(i).append("\"")
+                    .append(",\"modified\":\"2024-01-02T00:00:00+00:00\"")
+                    .append(",\"preview\":\"https://downloader.disk.yandex.ru/preview/").append(i).append("\"")
+                    .append(",\"sizes\":[{\"url\":\"https://downloader.disk.yandex.ru/disk/").append(i).append("\",\"name\":\"ORIGINAL\"}]")
+                    .append(",\"path\":\"disk:/photos/file").append(i).append(".jpg\"")
+                    .append(",\"md5\":\"d41d8cd98f00b204e9800998ecf8427e\"")
+                    .append(",\"type\":\"file\",\"mime_type\":\"image/jpeg\",\"media_type\":\"image\"}");
+        }
+        sb.append("],\"limit\":").append(this.size).append(",\"offset\":0}");
+        this.data = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Node> tree() throws IOException {
+        try (InputStreamReader r = new InputStreamReader(new ByteArrayInputStream(this.data), StandardCharsets.UTF_8)) {
+            JsonObject json = this.gson.fromJson(r, JsonObject.class);
+            return JsonUtil.getObjectListProperty(json, "items", Node::fromJson);
+        }
+    }
+
+    @Benchmark
+    public List<Node> streaming() throws IOException {
+        try (InputStreamReader r = new InputStreamReader(new ByteArrayInputStream(this.data), StandardCharsets.UTF_8);
+             JsonReader reader = this.gson.newJsonReader(r)
+        ) {
+            return NodeListDecoder.decode(reader, false).items();
+        }
+    }
+
+}
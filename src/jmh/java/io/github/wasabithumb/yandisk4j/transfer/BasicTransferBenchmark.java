@@ -0,0 +1,100 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Measures the throughput of {@link BasicTransfer#update(long)} while several threads update the same transfer
+ * and a watcher reads its progress on every update, against the read-write lock scheme it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class BasicTransferBenchmark {
+
+    @Param({ "0", "4" })
+    public int watchers;
+
+    private BasicTransfer lockFree;
+    private LockingTransfer locking;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.lockFree = new BasicTransfer(Long.MAX_VALUE);
+        this.locking = new LockingTransfer();
+        for (int i=0; i < this.watchers; i++) {
+            this.lockFree.watch((Transfer t) -> blackhole.consume(t.transferred()));
+            this.locking.watch((LockingTransfer t) -> blackhole.consume(t.transferred()));
+        }
+    }
+
+    @Benchmark
+    public long lockFree() {
+        return this.lockFree.update(8192L);
+    }
+
+    @Benchmark
+    public long locking() {
+        return this.locking.update(8192L);
+    }
+
+    //
+
+    /**
+     * The progress tracking of {@link BasicTransfer} before it became lock-free.
+     */
+    private static final class LockingTransfer {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Consumer<LockingTransfer>> callbacks = new LinkedList<>();
+        private long transferred = 0L;
+
+        long transferred() {
+            this.lock.readLock().lock();
+            try {
+                return this.transferred;
+            } finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        void watch(Consumer<LockingTransfer> callback) {
+            this.lock.writeLock().lock();
+            try {
+                this.callbacks.add(callback);
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+        }
+
+        long update(long bytes) {
+            this.lock.writeLock().lock();
+            try {
+                this.transferred += bytes;
+            } finally {
+                this.lock.writeLock().unlock();
+            }
+            this.lock.readLock().lock();
+            try {
+                for (Consumer<LockingTransfer> callback : this.callbacks)
+                    callback.accept(this);
+            } finally {
+                this.lock.readLock().unlock();
+            }
+            return bytes;
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+package io.github.wasabithumb.yandisk4j;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Options applied to each call made through a {@link YanDisk#withOptions(CallOptions) view} of a {@link YanDisk}.
+ * Instances which are not views use the {@link #defaults() defaults}.
+ * @since 0.5.0
+ */
+public final class CallOptions {
+
+    private static final CallOptions DEFAULTS = builder().build();
+
+    /**
+     * Provides the default options: no timeout beyond those of the transport, and listings limited to the
+     * properties of each node which are decoded.
+     */
+    public static @NotNull CallOptions defaults() {
+        return DEFAULTS;
+    }
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    //
+
+    private final long timeout;
+    private final boolean projection;
+    private CallOptions(long timeout, boolean projection) {
+        this.timeout = timeout;
+        this.projection = projection;
+    }
+
+    /**
+     * The time each call may take in milliseconds, or 0 if there is no limit.
+     */
+    public long timeout() {
+        return this.timeout;
+    }
+
+    /**
+     * True if listings ask the API for only the properties of each node which are decoded.
+     */
+    public boolean projection() {
+        return this.projection;
+    }
+
+    @Contract("-> new")
+    public @NotNull Builder toBuilder() {
+        return new Builder()
+                .timeout(this.timeout)
+                .projection(this.projection);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "CallOptions[timeout=" + this.timeout +
+                ", projection=" + this.projection + "]";
+    }
+
+    //
+
+    public static final class Builder {
+
+        private long timeout;
+        private boolean projection;
+        private Builder() {
+            this.timeout = 0L;
+            this.projection = true;
+        }
+
+        /**
+         * Sets the time each call may take, in milliseconds. This is a deadline for the whole call, including
+         * waiting for a connection, rate limiting and retries; once it passes, the call fails with a
+         * {@link io.github.wasabithumb.yandisk4j.except.YanDiskIOException YanDiskIOException} caused by a
+         * {@link io.github.wasabithumb.yandisk4j.transport.DeadlineExceededException DeadlineExceededException}.
+         * It does not apply to transfers made through the returned uploaders and downloaders, nor to waiting
+         * for an operation to finish. A value of 0 removes the limit. Default is 0.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder timeout(@Range(from = 0L, to = Long.MAX_VALUE) long timeout) {
+            if (timeout < 0L)
+                throw new IllegalArgumentException("Timeout may not be negative (got " + timeout + ")");
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets whether listings ({@code list} and {@code listAll}) send the API's {@code fields} parameter, so that
+         * the response only contains the properties of each node which are decoded (type, name, path, created,
+         * modified, md5, mime_type and size). This makes listing responses much smaller. Default is true.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder projection(boolean projection) {
+            this.projection = projection;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull CallOptions build() {
+            return new CallOptions(this.timeout, this.projection);
+        }
+
+    }
+
+}
@@ -5,6 +5,9 @@ import io.github.wasabithumb.yandisk4j.node.Node;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader;
 import io.github.wasabithumb.yandisk4j.node.path.NodePath;
+import io.github.wasabithumb.yandisk4j.node.walk.NodeVisitor;
+import io.github.wasabithumb.yandisk4j.node.walk.NodeWalker;
+import io.github.wasabithumb.yandisk4j.node.walk.WalkOptions;
 import io.github.wasabithumb.yandisk4j.operation.Operation;
 import io.github.wasabithumb.yandisk4j.util.PaginatedResult;
 import org.jetbrains.annotations.Contract;
@@ -12,6 +15,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 public sealed interface IYanDisk permits YanDiskImpl, YanDisk {
 
@@ -115,6 +119,79 @@ public sealed interface IYanDisk permits YanDiskImpl, YanDisk {
         return this.list(NodePath.parse(root), 20);
     }
 
+    // Walking
+
+    /**
+     * Visits every node beneath the given root, following pagination and exploring directories at the same time.
+     * At most {@link WalkOptions#maxConcurrency()} listing requests are in flight at once. The visitor may be
+     * called concurrently and in no particular order. Blocks until every node has been visited.
+     * @param root The directory to walk
+     * @param options Options for the walk
+     * @param visitor Receives every node beneath the root, and decides which directories are explored
+     * @since 0.5.0
+     */
+    default void walk(
+            @NotNull NodePath root,
+            @NotNull WalkOptions options,
+            @NotNull NodeVisitor visitor
+    ) throws YanDiskException {
+        NodeWalker.walk(this, root, options, visitor);
+    }
+
+    /**
+     * Visits every node beneath the given root with the {@link WalkOptions#defaults() default options}.
+     * @see #walk(NodePath, WalkOptions, NodeVisitor)
+     * @since 0.5.0
+     */
+    default void walk(@NotNull NodePath root, @NotNull NodeVisitor visitor) throws YanDiskException {
+        this.walk(root, WalkOptions.defaults(), visitor);
+    }
+
+    /**
+     * Visits every node beneath the given root.
+     * @see #walk(NodePath, WalkOptions, NodeVisitor)
+     * @since 0.5.0
+     */
+    default void walk(
+            @NotNull String root,
+            @NotNull WalkOptions options,
+            @NotNull NodeVisitor visitor
+    ) throws YanDiskException {
+        this.walk(NodePath.parse(root), options, visitor);
+    }
+
+    /**
+     * Provides a stream of every node beneath the given root, following pagination and exploring directories at
+     * the same time. At most {@link WalkOptions#maxConcurrency()} listing requests are in flight at once, and
+     * listing pauses while {@link WalkOptions#bufferSize()} nodes are waiting to be consumed. Nodes are not
+     * provided in any particular order. The stream should be closed (e.g. with try-with-resources) if it is not
+     * fully consumed. Usage of the stream may sneakily throw {@link YanDiskException}.
+     * @param root The directory to walk
+     * @param options Options for the walk
+     * @since 0.5.0
+     */
+    default @NotNull Stream<Node> walk(@NotNull NodePath root, @NotNull WalkOptions options) {
+        return NodeWalker.stream(this, root, options);
+    }
+
+    /**
+     * Provides a stream of every node beneath the given root with the {@link WalkOptions#defaults() default options}.
+     * @see #walk(NodePath, WalkOptions)
+     * @since 0.5.0
+     */
+    default @NotNull Stream<Node> walk(@NotNull NodePath root) {
+        return this.walk(root, WalkOptions.defaults());
+    }
+
+    /**
+     * Provides a stream of every node beneath the given root.
+     * @see #walk(NodePath, WalkOptions)
+     * @since 0.5.0
+     */
+    default @NotNull Stream<Node> walk(@NotNull String root, @NotNull WalkOptions options) {
+        return this.walk(NodePath.parse(root), options);
+    }
+
     // https://yandex.com/dev/disk-api/doc/en/reference/upload
 
     /**
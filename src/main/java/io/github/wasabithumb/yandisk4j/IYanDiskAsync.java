@@ -0,0 +1,285 @@
+package io.github.wasabithumb.yandisk4j;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.node.Node;
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader;
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader;
+import io.github.wasabithumb.yandisk4j.node.path.NodePath;
+import io.github.wasabithumb.yandisk4j.operation.Operation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>
+ *     Asynchronous counterpart to {@link IYanDisk}, obtained through {@link YanDisk#async()}. Each method sends its
+ *     request and returns immediately; no thread is blocked while waiting for the response. When the
+ *     {@link io.github.wasabithumb.yandisk4j.transport.Transport Transport} is backed by non-blocking I/O
+ *     (as the default transport is), a small number of threads can drive a very large number of requests.
+ * </p>
+ * <p>
+ *     Returned futures complete exceptionally with a {@link YanDiskException} on failure. Dependent stages may
+ *     run on the thread which completed the exchange, so they should not block.
+ * </p>
+ * @see IYanDisk
+ * @since 0.5.0
+ */
+public sealed interface IYanDiskAsync permits YanDiskAsyncImpl {
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/all-files
+
+    /**
+     * List all files (<a href="https://yandex.com/dev/disk-api/doc/en/reference/all-files">see reference</a>).
+     * This is <strong>paginated</strong>.
+     * @param limit The maximum number of entries that can be returned by this method.
+     * @param offset The first entry index to include.
+     * @see IYanDisk#listAll(int, int)
+     */
+    @NotNull CompletableFuture<List<Node>> listAll(int limit, int offset);
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/meta
+
+    /**
+     * List all files parented to the given root path (<a href="https://yandex.com/dev/disk-api/doc/en/reference/meta">see reference</a>).
+     * This is <strong>paginated</strong>.
+     * @param root The path to list the content of
+     * @param limit The maximum number of entries that can be returned by this method.
+     * @param offset The first entry index to include.
+     * @see IYanDisk#list(NodePath, int, int)
+     */
+    @NotNull CompletableFuture<List<Node>> list(@NotNull NodePath root, int limit, int offset);
+
+    /**
+     * List all files parented to the given root path (<a href="https://yandex.com/dev/disk-api/doc/en/reference/meta">see reference</a>).
+     * This is <strong>paginated</strong>.
+     * @param root The path to list the content of
+     * @param limit The maximum number of entries that can be returned by this method.
+     * @param offset The first entry index to include.
+     * @see #list(NodePath, int, int)
+     */
+    default @NotNull CompletableFuture<List<Node>> list(@NotNull String root, int limit, int offset) {
+        return this.list(NodePath.parse(root), limit, offset);
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/upload
+
+    /**
+     * Provisions a file upload. Use {@link NodeUploader#writeAsync(java.io.InputStream, long)} or similar to
+     * complete the upload.
+     * @param path The path to write to
+     * @param overwrite If true, any existing file will be overwritten.
+     * @see IYanDisk#upload(NodePath, boolean)
+     */
+    @NotNull CompletableFuture<NodeUploader> upload(@NotNull NodePath path, boolean overwrite);
+
+    /**
+     * Provisions a file upload. Alias for {@code upload(path, false)}.
+     * @param path The path to write to
+     * @see #upload(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<NodeUploader> upload(@NotNull NodePath path) {
+        return this.upload(path, false);
+    }
+
+    /**
+     * Provisions a file upload.
+     * @param path The path to write to
+     * @param overwrite If true, any existing file will be overwritten.
+     * @see #upload(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<NodeUploader> upload(@NotNull String path, boolean overwrite) {
+        return this.upload(NodePath.parse(path), overwrite);
+    }
+
+    /**
+     * Provisions a file upload. Alias for {@code upload(path, false)}.
+     * @param path The path to write to
+     * @see #upload(String, boolean)
+     */
+    default @NotNull CompletableFuture<NodeUploader> upload(@NotNull String path) {
+        return this.upload(NodePath.parse(path), false);
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/content
+
+    /**
+     * Provisions a file download. Use {@link NodeDownloader#readAsync(java.io.File)} or similar to complete the
+     * download.
+     * @param path The path to read from
+     * @see IYanDisk#download(NodePath)
+     */
+    @NotNull CompletableFuture<NodeDownloader> download(@NotNull NodePath path);
+
+    /**
+     * Provisions a file download.
+     * @param path The path to read from
+     * @see #download(NodePath)
+     */
+    default @NotNull CompletableFuture<NodeDownloader> download(@NotNull String path) {
+        return this.download(NodePath.parse(path));
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/copy
+
+    /**
+     * Copies a file or folder.
+     * @param a Path of the node to copy.
+     * @param b Path of the destination node.
+     * @param overwrite If true, permits overwriting.
+     * @see IYanDisk#copy(NodePath, NodePath, boolean)
+     */
+    @NotNull CompletableFuture<Operation> copy(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite);
+
+    /**
+     * Copies a file or folder. Alias for {@code copy(a, b, false)}
+     * @param a Path of the node to copy.
+     * @param b Path of the destination node.
+     * @see #copy(NodePath, NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> copy(@NotNull NodePath a, @NotNull NodePath b) {
+        return this.copy(a, b, false);
+    }
+
+    /**
+     * Copies a file or folder.
+     * @param a Path of the node to copy.
+     * @param b Path of the destination node.
+     * @param overwrite If true, permits overwriting.
+     * @see #copy(NodePath, NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> copy(@NotNull String a, @NotNull String b, boolean overwrite) {
+        return this.copy(NodePath.parse(a), NodePath.parse(b), overwrite);
+    }
+
+    /**
+     * Copies a file or folder. Alias for {@code copy(a, b, false)}
+     * @param a Path of the node to copy.
+     * @param b Path of the destination node.
+     * @see #copy(String, String, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> copy(@NotNull String a, @NotNull String b) {
+        return this.copy(NodePath.parse(a), NodePath.parse(b), false);
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/move
+
+    /**
+     * Moves a file or folder.
+     * @param a Path of the node to move.
+     * @param b Path of the destination node.
+     * @param overwrite If true, permits overwriting.
+     * @see IYanDisk#move(NodePath, NodePath, boolean)
+     */
+    @NotNull CompletableFuture<Operation> move(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite);
+
+    /**
+     * Moves a file or folder. Alias for {@code move(a, b, false)}
+     * @param a Path of the node to move.
+     * @param b Path of the destination node.
+     * @see #move(NodePath, NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> move(@NotNull NodePath a, @NotNull NodePath b) {
+        return this.move(a, b, false);
+    }
+
+    /**
+     * Moves a file or folder.
+     * @param a Path of the node to move.
+     * @param b Path of the destination node.
+     * @param overwrite If true, permits overwriting.
+     * @see #move(NodePath, NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> move(@NotNull String a, @NotNull String b, boolean overwrite) {
+        return this.move(NodePath.parse(a), NodePath.parse(b), overwrite);
+    }
+
+    /**
+     * Moves a file or folder. Alias for {@code move(a, b, false)}
+     * @param a Path of the node to move.
+     * @param b Path of the destination node.
+     * @see #move(String, String, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> move(@NotNull String a, @NotNull String b) {
+        return this.move(NodePath.parse(a), NodePath.parse(b), false);
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/delete
+
+    /**
+     * Deletes a file or folder.
+     * @param path Path of the node to delete.
+     * @param permanent If true, node is deleted permanently. Otherwise, node is moved to Trash.
+     * @see IYanDisk#delete(NodePath, boolean)
+     */
+    @NotNull CompletableFuture<Operation> delete(@NotNull NodePath path, boolean permanent);
+
+    /**
+     * Deletes a file or folder. Alias for {@code delete(path, false)}.
+     * @param path Path of the node to delete.
+     * @see #delete(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> delete(@NotNull NodePath path) {
+        return this.delete(path, false);
+    }
+
+    /**
+     * Deletes a file or folder.
+     * @param path Path of the node to delete.
+     * @param permanent If true, node is deleted permanently. Otherwise, node is moved to Trash.
+     * @see #delete(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> delete(@NotNull String path, boolean permanent) {
+        return this.delete(NodePath.parse(path), permanent);
+    }
+
+    /**
+     * Deletes a file or folder. Alias for {@code delete(path, false)}.
+     * @param path Path of the node to delete.
+     * @see #delete(String, boolean)
+     */
+    default @NotNull CompletableFuture<Operation> delete(@NotNull String path) {
+        return this.delete(NodePath.parse(path), false);
+    }
+
+    // https://yandex.com/dev/disk-api/doc/en/reference/create-folder
+
+    /**
+     * Creates a folder.
+     * @param path Path to the folder to create.
+     * @param lazy If true, the future will not fail when the directory already exists.
+     * @return A future which completes with true if the directory was created
+     * @see IYanDisk#mkdir(NodePath, boolean)
+     */
+    @NotNull CompletableFuture<Boolean> mkdir(@NotNull NodePath path, boolean lazy);
+
+    /**
+     * Creates a folder. Alias for {@code mkdir(path, false)}.
+     * @param path Path to the folder to create.
+     * @see #mkdir(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Boolean> mkdir(@NotNull NodePath path) {
+        return this.mkdir(path, false);
+    }
+
+    /**
+     * Creates a folder.
+     * @param path Path to the folder to create.
+     * @param lazy If true, the future will not fail when the directory already exists.
+     * @return A future which completes with true if the directory was created
+     * @see #mkdir(NodePath, boolean)
+     */
+    default @NotNull CompletableFuture<Boolean> mkdir(@NotNull String path, boolean lazy) {
+        return this.mkdir(NodePath.parse(path), lazy);
+    }
+
+    /**
+     * Creates a folder. Alias for {@code mkdir(path, false)}.
+     * @param path Path to the folder to create.
+     * @see #mkdir(String, boolean)
+     */
+    default @NotNull CompletableFuture<Boolean> mkdir(@NotNull String path) {
+        return this.mkdir(NodePath.parse(path), false);
+    }
+
+}
@@ -10,6 +10,7 @@ import io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader;
 import io.github.wasabithumb.yandisk4j.node.path.NodePath;
 import io.github.wasabithumb.yandisk4j.operation.Operation;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
@@ -20,6 +21,7 @@ import java.util.function.Supplier;
  * Entry point for {@code yandisk4j}
  * @see #yanDisk(Supplier)
  * @see #yanDisk(String)
+ * @see #yanDisk(Supplier, Transport)
  */
 public final class YanDisk implements IYanDisk {
 
@@ -52,12 +54,32 @@ public final class YanDisk implements IYanDisk {
         };
     }
 
+    /**
+     * Creates a new {@link YanDisk} instance, using the provided function as an access token source
+     * and the provided {@link Transport} to make requests.
+     * Access tokens can be generated via {@link #auth(AuthScheme)}.
+     * @since 0.5.0
+     */
+    public static @NotNull YanDisk yanDisk(@NotNull Supplier<String> accessTokenSupplier, @NotNull Transport transport) {
+        return new YanDisk(new YanDiskImpl(accessTokenSupplier, transport));
+    }
+
     /**
      * Creates a new {@link YanDisk} instance, using the provided function as an access token source.
      * Access tokens can be generated via {@link #auth(AuthScheme)}.
      */
     public static @NotNull YanDisk yanDisk(@NotNull Supplier<String> accessTokenSupplier) {
-        return new YanDisk(new YanDiskImpl(accessTokenSupplier));
+        return yanDisk(accessTokenSupplier, Transport.defaultTransport());
+    }
+
+    /**
+     * Creates a new {@link YanDisk} instance from the specified constant access token, using the provided
+     * {@link Transport} to make requests.
+     * Access tokens can be generated via {@link #auth(AuthScheme)}.
+     * @since 0.5.0
+     */
+    public static @NotNull YanDisk yanDisk(final @NotNull String accessToken, @NotNull Transport transport) {
+        return yanDisk(() -> accessToken, transport);
     }
 
     /**
@@ -68,6 +90,16 @@ public final class YanDisk implements IYanDisk {
         return yanDisk(() -> accessToken);
     }
 
+    /**
+     * Creates a new {@link YanDisk} instance from the specified constant access token, using the provided
+     * {@link Transport} to make requests.
+     * Access tokens can be generated via {@link #auth(AuthScheme)}.
+     * @since 0.5.0
+     */
+    public static @NotNull YanDisk yanDisk(@NotNull AuthResponse authResponse, @NotNull Transport transport) {
+        return yanDisk(authResponse.accessToken(), transport);
+    }
+
     /**
      * Creates a new {@link YanDisk} instance from the specified constant access token.
      * Access tokens can be generated via {@link #auth(AuthScheme)}.
@@ -79,8 +111,39 @@ public final class YanDisk implements IYanDisk {
     //
 
     private final YanDiskImpl impl;
+    private final YanDiskAsyncImpl async;
     YanDisk(@NotNull YanDiskImpl impl) {
         this.impl = impl;
+        this.async = new YanDiskAsyncImpl(impl);
+    }
+
+    /**
+     * Provides a non-blocking view of this instance, where each method returns a
+     * {@link java.util.concurrent.CompletableFuture CompletableFuture}.
+     * @since 0.5.0
+     */
+    public @NotNull IYanDiskAsync async() {
+        return this.async;
+    }
+
+    /**
+     * Provides a view of this instance which makes each call with the given options, for example to bound how
+     * long a call may take. The view shares the access token source and transport of this instance.
+     * @see CallOptions
+     * @since 0.5.0
+     */
+    @Contract("_ -> new")
+    public @NotNull YanDisk withOptions(@NotNull CallOptions options) {
+        return new YanDisk(this.impl.withOptions(options));
+    }
+
+    /**
+     * The options with which this instance makes calls.
+     * @see #withOptions(CallOptions)
+     * @since 0.5.0
+     */
+    public @NotNull CallOptions options() {
+        return this.impl.options();
     }
 
     @Override
@@ -0,0 +1,64 @@
+package io.github.wasabithumb.yandisk4j;
+
+import io.github.wasabithumb.yandisk4j.node.Node;
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader;
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader;
+import io.github.wasabithumb.yandisk4j.node.path.NodePath;
+import io.github.wasabithumb.yandisk4j.operation.Operation;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@ApiStatus.Internal
+final class YanDiskAsyncImpl implements IYanDiskAsync {
+
+    private final YanDiskImpl impl;
+    YanDiskAsyncImpl(@NotNull YanDiskImpl impl) {
+        this.impl = impl;
+    }
+
+    //
+
+    @Override
+    public @NotNull CompletableFuture<List<Node>> listAll(int limit, int offset) {
+        return this.impl.executeAsync(this.impl.listAllCall(limit, offset));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<Node>> list(@NotNull NodePath root, int limit, int offset) {
+        return this.impl.executeAsync(this.impl.listCall(root, limit, offset));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<NodeUploader> upload(@NotNull NodePath path, boolean overwrite) {
+        return this.impl.executeAsync(this.impl.uploadCall(path, overwrite));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<NodeDownloader> download(@NotNull NodePath path) {
+        return this.impl.executeAsync(this.impl.downloadCall(path));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Operation> copy(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) {
+        return this.impl.executeAsync(this.impl.copyCall(a, b, overwrite));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Operation> move(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) {
+        return this.impl.executeAsync(this.impl.moveCall(a, b, overwrite));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Operation> delete(@NotNull NodePath path, boolean permanent) {
+        return this.impl.executeAsync(this.impl.deleteCall(path, permanent));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Boolean> mkdir(@NotNull NodePath path, boolean lazy) {
+        return this.impl.executeAsync(this.impl.mkdirCall(path, lazy));
+    }
+
+}
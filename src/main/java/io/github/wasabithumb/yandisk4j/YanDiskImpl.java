@@ -2,27 +2,34 @@ package io.github.wasabithumb.yandisk4j;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 import io.github.wasabithumb.yandisk4j.except.*;
 import io.github.wasabithumb.yandisk4j.node.Node;
+import io.github.wasabithumb.yandisk4j.node.NodeListDecoder;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader;
 import io.github.wasabithumb.yandisk4j.node.path.NodePath;
 import io.github.wasabithumb.yandisk4j.operation.Operation;
-import io.github.wasabithumb.yandisk4j.util.JsonUtil;
+import io.github.wasabithumb.yandisk4j.transport.CircuitOpenException;
+import io.github.wasabithumb.yandisk4j.transport.DeadlineExceededException;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
 import io.github.wasabithumb.yandisk4j.util.YanDiskConstants;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 @ApiStatus.Internal
@@ -30,9 +37,33 @@ final class YanDiskImpl implements IYanDisk {
 
     private final Gson gson;
     private final Supplier<String> accessTokenSupplier;
-    YanDiskImpl(@NotNull Supplier<String> accessTokenSupplier) {
-        this.gson = new Gson();
+    private final Transport transport;
+    private final CallOptions options;
+    private YanDiskImpl(
+            @NotNull Gson gson,
+            @NotNull Supplier<String> accessTokenSupplier,
+            @NotNull Transport transport,
+            @NotNull CallOptions options
+    ) {
+        this.gson = gson;
         this.accessTokenSupplier = accessTokenSupplier;
+        this.transport = transport;
+        this.options = options;
+    }
+
+    YanDiskImpl(@NotNull Supplier<String> accessTokenSupplier, @NotNull Transport transport) {
+        this(new Gson(), accessTokenSupplier, transport, CallOptions.defaults());
+    }
+
+    @NotNull CallOptions options() {
+        return this.options;
+    }
+
+    /**
+     * Creates an instance which shares the state of this one, but makes calls with the given options.
+     */
+    @NotNull YanDiskImpl withOptions(@NotNull CallOptions options) {
+        return new YanDiskImpl(this.gson, this.accessTokenSupplier, this.transport, options);
     }
 
     //
@@ -41,46 +72,66 @@ final class YanDiskImpl implements IYanDisk {
         return Objects.requireNonNull(this.accessTokenSupplier.get());
     }
 
-    private @NotNull HttpURLConnection open(@NotNull String endpoint, @NotNull String method) throws IOException {
-        final URL url = URI.create("https://cloud-api.yandex.net/v1/disk/resources" + endpoint).toURL();
-        final HttpURLConnection c = (HttpURLConnection) url.openConnection();
-        c.setRequestMethod(method);
-        c.setRequestProperty("Accept", "application/json");
-        c.setRequestProperty("User-Agent", YanDiskConstants.USER_AGENT);
-        c.setRequestProperty("Authorization", "OAuth " + this.accessToken());
-        return c;
+    private @NotNull TransportRequest request(@NotNull String endpoint, @NotNull String method) {
+        return TransportRequest.builder("https://cloud-api.yandex.net/v1/disk/resources" + endpoint)
+                .method(method)
+                .header("Accept", "application/json")
+                .header("User-Agent", YanDiskConstants.USER_AGENT)
+                .header("Authorization", "OAuth " + this.accessToken())
+                .build();
     }
 
-    private @NotNull HttpURLConnection get(@NotNull String endpoint) throws IOException {
-        return this.open(endpoint, "GET");
-    }
+    private @NotNull JsonObject readJSON(@NotNull TransportResponse c) throws IOException, YanDiskException {
+        try (c) {
+            final int responseCode = c.status();
+            if (responseCode >= 400) throw this.readError(c);
 
-    private @NotNull HttpURLConnection post(@NotNull String endpoint) throws IOException {
-        return this.open(endpoint, "POST");
+            try (InputStreamReader r = new InputStreamReader(c.body(), StandardCharsets.UTF_8)) {
+                JsonObject ret = this.gson.fromJson(r, JsonObject.class);
+                if (ret == null) throw new IOException("Response has no body");
+                if (ret.has("error")) throw YanDiskAPIException.fromJSON(ret);
+                return ret;
+            }
+        }
     }
 
-    private @NotNull JsonObject readJSON(@NotNull HttpURLConnection c) throws IOException, YanDiskException {
-        InputStream is;
-        int responseCode = c.getResponseCode();
-        boolean isError;
+    /**
+     * Reads a listing response in a single pass, without building a JSON tree.
+     * @see NodeListDecoder
+     */
+    private @NotNull NodeListDecoder.Listing readListing(
+            @NotNull TransportResponse c,
+            boolean embedded
+    ) throws IOException, YanDiskException {
+        try (c) {
+            final int responseCode = c.status();
+            if (responseCode >= 400) throw this.readError(c);
 
-        if (responseCode >= 500) {
-            throw new YanDiskGatewayException(responseCode);
-        } else if (responseCode >= 400) {
-            is = c.getErrorStream();
-            if (is == null) throw newUnknownClientError(responseCode);
-            isError = true;
-        } else {
-            is = c.getInputStream();
-            isError = false;
+            NodeListDecoder.Listing ret;
+            try (InputStreamReader r = new InputStreamReader(c.body(), StandardCharsets.UTF_8);
+                 JsonReader reader = this.gson.newJsonReader(r)
+            ) {
+                ret = NodeListDecoder.decode(reader, embedded);
+            }
+            final String error = ret.error();
+            if (error != null) throw new YanDiskAPIException(error, ret.errorDescription());
+            return ret;
         }
+    }
 
-        try (is; InputStreamReader r = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-            JsonObject ret = this.gson.fromJson(r, JsonObject.class);
-            if (ret.has("error")) throw YanDiskAPIException.fromJSON(ret);
-            if (isError) throw newUnknownClientError(responseCode);
-            return ret;
+    /**
+     * Creates the exception to raise for a response with an error status code (400 or above).
+     */
+    private @NotNull YanDiskException readError(@NotNull TransportResponse c) throws IOException {
+        final int responseCode = c.status();
+        if (responseCode >= 500) return new YanDiskGatewayException(responseCode);
+
+        JsonObject ret;
+        try (InputStreamReader r = new InputStreamReader(c.body(), StandardCharsets.UTF_8)) {
+            ret = this.gson.fromJson(r, JsonObject.class);
         }
+        if (ret != null && ret.has("error")) return YanDiskAPIException.fromJSON(ret);
+        return newUnknownClientError(responseCode);
     }
 
     private YanDiskIOException newUnknownClientError(int code) {
@@ -90,147 +141,253 @@ final class YanDiskImpl implements IYanDisk {
         );
     }
 
-    //
+    /**
+     * Wraps an exception raised while making a call.
+     */
+    private static @NotNull YanDiskException wrap(@NotNull Call<?> call, @NotNull IOException e) {
+        if (e instanceof CircuitOpenException coe) return new YanDiskUnavailableException(call.description(), coe);
+        return new YanDiskIOException(call.description(), e);
+    }
 
-    @Override
-    public @NotNull List<Node> listAll(int limit, int offset) throws YanDiskException {
-        JsonObject json;
-        try {
-            json = this.readJSON(this.get("/files?limit=" + limit + "&offset=" + offset));
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to fetch file tree", e);
-        }
-        return JsonUtil.getObjectListProperty(json, "items", Node::fromJson);
+    /**
+     * Returns the request of a call, with a deadline set according to the {@link CallOptions#timeout() timeout}.
+     */
+    private @NotNull TransportRequest start(@NotNull Call<?> call) {
+        final long timeout = this.options.timeout();
+        if (timeout == 0L) return call.request();
+        return call.request().toBuilder()
+                .deadline(Instant.now().plusMillis(timeout))
+                .build();
     }
 
-    @Override
-    public @NotNull List<Node> list(@NotNull NodePath root, int limit, int offset) throws YanDiskException {
-        JsonObject json;
+    /**
+     * Sends a call and handles its response on the calling thread.
+     */
+    private <T> @NotNull T execute(@NotNull Call<T> call) throws YanDiskException {
         try {
-            json = this.readJSON(this.get(
-                    "?path=" + URLEncoder.encode(root.toString(), StandardCharsets.UTF_8) +
-                            "&limit=" + limit + "&offset=" + offset + "&sort=path"
-            ));
+            return call.handler().handle(this.transport.send(this.start(call)));
         } catch (IOException e) {
-            throw new YanDiskIOException("Failed to fetch directory listing @ " + root, e);
+            throw wrap(call, e);
         }
+    }
 
-        if (!json.get("type").getAsString().equals("dir")) {
-            throw new YanDiskOperationException("Path \"" + root + "\" is not a directory");
+    /**
+     * Sends a call without blocking. The response is handled on whichever thread completes the exchange.
+     * Failures are reported as {@link YanDiskException}s, wrapped in a {@link CompletionException}.
+     */
+    <T> @NotNull CompletableFuture<T> executeAsync(@NotNull Call<T> call) {
+        final TransportRequest request = this.start(call);
+        CompletableFuture<TransportResponse> future = this.transport.sendAsync(request);
+        if (request.deadline() != null) {
+            // Ensures the future completes even if the transport does not honor the deadline
+            future = future.orTimeout(Math.max(request.remaining(), 0L), TimeUnit.MILLISECONDS);
         }
+        return future
+                .handle((TransportResponse response, Throwable error) -> {
+                    if (error != null) {
+                        if (error instanceof CompletionException && error.getCause() != null)
+                            error = error.getCause();
+                        if (error instanceof TimeoutException)
+                            error = new DeadlineExceededException(request);
+                        if (error instanceof IOException e)
+                            throw wrap(call, e);
+                        throw new CompletionException(error);
+                    }
+                    try {
+                        return call.handler().handle(response);
+                    } catch (IOException e) {
+                        throw wrap(call, e);
+                    }
+                });
+    }
+
+    //
 
-        return JsonUtil.getObjectListProperty(
-                JsonUtil.getObjectProperty(json, "_embedded"),
-                "items",
-                Node::fromJson
+    /**
+     * Provides the {@code fields} query parameter for a listing, or an empty string if
+     * {@link CallOptions#projection() projection} is disabled.
+     * @see NodeListDecoder#fields(boolean)
+     */
+    private @NotNull String fieldsParam(boolean embedded) {
+        if (!this.options.projection()) return "";
+        return "&fields=" + URLEncoder.encode(NodeListDecoder.fields(embedded), StandardCharsets.UTF_8);
+    }
+
+    @NotNull Call<List<Node>> listAllCall(int limit, int offset) {
+        return new Call<>(
+                this.request("/files?limit=" + limit + "&offset=" + offset + this.fieldsParam(false), "GET"),
+                "Failed to fetch file tree",
+                (TransportResponse response) -> this.readListing(response, false).items()
+        );
+    }
+
+    @NotNull Call<List<Node>> listCall(@NotNull NodePath root, int limit, int offset) {
+        return new Call<>(
+                this.request(
+                        "?path=" + URLEncoder.encode(root.toString(), StandardCharsets.UTF_8) +
+                                "&limit=" + limit + "&offset=" + offset + "&sort=path" +
+                                this.fieldsParam(true),
+                        "GET"
+                ),
+                "Failed to fetch directory listing @ " + root,
+                (TransportResponse response) -> {
+                    NodeListDecoder.Listing listing = this.readListing(response, true);
+                    if (!"dir".equals(listing.type())) {
+                        throw new YanDiskOperationException("Path \"" + root + "\" is not a directory");
+                    }
+                    return listing.items();
+                }
+        );
+    }
+
+    @NotNull Call<NodeUploader> uploadCall(@NotNull NodePath path, boolean overwrite) {
+        return new Call<>(
+                this.request(
+                        "/upload?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8) +
+                                "&overwrite=" + overwrite,
+                        "GET"
+                ),
+                "Failed to upload file @ " + path,
+                (TransportResponse response) -> NodeUploader.fromJson(this.readJSON(response), this.transport)
+        );
+    }
+
+    @NotNull Call<NodeDownloader> downloadCall(@NotNull NodePath path) {
+        return new Call<>(
+                this.request(
+                        "/download?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8),
+                        "GET"
+                ),
+                "Failed to download file @ " + path,
+                (TransportResponse response) -> NodeDownloader.fromJson(this.readJSON(response), this.transport)
+        );
+    }
+
+    @NotNull Call<Operation> copyCall(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) {
+        return new Call<>(
+                this.request(
+                        "/copy?from=" + URLEncoder.encode(a.toString(), StandardCharsets.UTF_8) +
+                                "&path=" + URLEncoder.encode(b.toString(), StandardCharsets.UTF_8) +
+                                "&overwrite=" + overwrite,
+                        "POST"
+                ),
+                "Failed to copy file from " + a + " to " + b,
+                this::readOperation
+        );
+    }
+
+    @NotNull Call<Operation> moveCall(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) {
+        return new Call<>(
+                this.request(
+                        "/move?from=" + URLEncoder.encode(a.toString(), StandardCharsets.UTF_8) +
+                                "&path=" + URLEncoder.encode(b.toString(), StandardCharsets.UTF_8) +
+                                "&overwrite=" + overwrite,
+                        "POST"
+                ),
+                "Failed to move file from " + a + " to " + b,
+                this::readOperation
+        );
+    }
+
+    @NotNull Call<Operation> deleteCall(@NotNull NodePath path, boolean permanent) {
+        return new Call<>(
+                this.request(
+                        "?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8) +
+                                "&permanently=" + permanent,
+                        "DELETE"
+                ),
+                "Failed to delete file @ " + path,
+                this::readOperation
+        );
+    }
+
+    @NotNull Call<Boolean> mkdirCall(@NotNull NodePath path, boolean lazy) {
+        return new Call<>(
+                this.request(
+                        "?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8),
+                        "PUT"
+                ),
+                "Failed to create directory @ " + path,
+                (TransportResponse response) -> {
+                    try {
+                        this.readJSON(response);
+                    } catch (YanDiskAPIException e) {
+                        if (lazy && "DiskPathPointsToExistentDirectoryError".equals(e.errorCode())) return false;
+                        throw e;
+                    }
+                    return true;
+                }
         );
     }
 
+    private @NotNull Operation readOperation(@NotNull TransportResponse response) throws IOException, YanDiskException {
+        final int status = response.status();
+        final JsonObject json = this.readJSON(response);
+        if (status == 202) {
+            return Operation.pending(json, this.transport);
+        }
+        return Operation.SUCCESS;
+    }
+
+    //
+
+    @Override
+    public @NotNull List<Node> listAll(int limit, int offset) throws YanDiskException {
+        return this.execute(this.listAllCall(limit, offset));
+    }
+
+    @Override
+    public @NotNull List<Node> list(@NotNull NodePath root, int limit, int offset) throws YanDiskException {
+        return this.execute(this.listCall(root, limit, offset));
+    }
+
     @Override
     public @NotNull NodeUploader upload(@NotNull NodePath path, boolean overwrite) throws YanDiskException {
-        JsonObject json;
-        try {
-            json = this.readJSON(this.get(
-                    "/upload?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8) +
-                            "&overwrite=" + overwrite
-            ));
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to upload file @ " + path, e);
-        }
-        return NodeUploader.fromJson(json);
+        return this.execute(this.uploadCall(path, overwrite));
     }
 
     @Override
     public @NotNull NodeDownloader download(@NotNull NodePath path) throws YanDiskException {
-        JsonObject json;
-        try {
-            json = this.readJSON(this.get(
-                    "/download?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8)
-            ));
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to download file @ " + path, e);
-        }
-        return NodeDownloader.fromJson(json);
+        return this.execute(this.downloadCall(path));
     }
 
     @Override
     public @NotNull Operation copy(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) throws YanDiskException {
-        JsonObject json;
-        int status;
-        try {
-            HttpURLConnection connection = this.post(
-                    "/copy?from=" + URLEncoder.encode(a.toString(), StandardCharsets.UTF_8) +
-                            "&path=" + URLEncoder.encode(b.toString(), StandardCharsets.UTF_8) +
-                            "&overwrite=" + overwrite
-            );
-            status = connection.getResponseCode();
-            json = this.readJSON(connection);
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to copy file from " + a + " to " + b, e);
-        }
-        if (status == 202) {
-            return Operation.pending(json);
-        }
-        return Operation.SUCCESS;
+        return this.execute(this.copyCall(a, b, overwrite));
     }
 
     @Override
     public @NotNull Operation move(@NotNull NodePath a, @NotNull NodePath b, boolean overwrite) throws YanDiskException {
-        JsonObject json;
-        int status;
-        try {
-            HttpURLConnection connection = this.post(
-                    "/move?from=" + URLEncoder.encode(a.toString(), StandardCharsets.UTF_8) +
-                            "&path=" + URLEncoder.encode(b.toString(), StandardCharsets.UTF_8) +
-                            "&overwrite=" + overwrite
-            );
-            status = connection.getResponseCode();
-            json = this.readJSON(connection);
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to move file from " + a + " to " + b, e);
-        }
-        if (status == 202) {
-            return Operation.pending(json);
-        }
-        return Operation.SUCCESS;
+        return this.execute(this.moveCall(a, b, overwrite));
     }
 
     @Override
     public @NotNull Operation delete(@NotNull NodePath path, boolean permanent) throws YanDiskException {
-        JsonObject json;
-        int status;
-        try {
-            HttpURLConnection connection = this.open(
-                    "?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8) +
-                            "&permanently=" + permanent,
-                    "DELETE"
-            );
-            status = connection.getResponseCode();
-            json = this.readJSON(connection);
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to delete file @ " + path, e);
-        }
-        if (status == 202) {
-            return Operation.pending(json);
-        }
-        return Operation.SUCCESS;
+        return this.execute(this.deleteCall(path, permanent));
     }
 
     @Override
     public boolean mkdir(@NotNull NodePath path, boolean lazy) throws YanDiskException {
-        try {
-            HttpURLConnection connection = this.open(
-                    "?path=" + URLEncoder.encode(path.toString(), StandardCharsets.UTF_8),
-                    "PUT"
-            );
-            this.readJSON(connection);
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to create directory @ " + path, e);
-        } catch (YanDiskAPIException e) {
-            if (lazy && "DiskPathPointsToExistentDirectoryError".equals(e.errorCode())) return false;
-            throw e;
-        }
-        return true;
+        return this.execute(this.mkdirCall(path, lazy));
+    }
+
+    //
+
+    /**
+     * A request to the API, paired with the logic to interpret its response.
+     * @param description Message used when the exchange fails with an {@link IOException}
+     */
+    record Call<T>(
+            @NotNull TransportRequest request,
+            @NotNull String description,
+            @NotNull ResponseHandler<T> handler
+    ) { }
+
+    @FunctionalInterface
+    interface ResponseHandler<T> {
+
+        @NotNull T handle(@NotNull TransportResponse response) throws IOException, YanDiskException;
+
     }
 
 }
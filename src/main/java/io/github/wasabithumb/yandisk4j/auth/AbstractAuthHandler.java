@@ -6,6 +6,9 @@ import io.github.wasabithumb.yandisk4j.auth.scope.AuthScope;
 import io.github.wasabithumb.yandisk4j.except.YanDiskAPIException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
 import io.github.wasabithumb.yandisk4j.util.YanDiskConstants;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -13,12 +16,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.awt.Desktop;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -37,13 +36,15 @@ public abstract class AbstractAuthHandler implements AuthHandler {
     protected final String deviceID;
     protected final String deviceName;
     protected final String state;
+    protected final Transport transport;
     public AbstractAuthHandler(
             @NotNull String clientID,
             @NotNull String clientSecret,
             @NotNull Set<AuthScope> scopes,
             @Nullable String deviceID,
             @Nullable String deviceName,
-            @Nullable String state
+            @Nullable String state,
+            @NotNull Transport transport
     ) {
         this.clientID = clientID;
         this.clientSecret = clientSecret;
@@ -51,6 +52,7 @@ public abstract class AbstractAuthHandler implements AuthHandler {
         this.deviceID = deviceID;
         this.deviceName = deviceName;
         this.state = state;
+        this.transport = transport;
     }
 
     @Override
@@ -119,36 +121,27 @@ public abstract class AbstractAuthHandler implements AuthHandler {
 
     @Override
     public @NotNull AuthResponse exchange(@NotNull String code) throws YanDiskException {
-        try {
-            final URL url = URI.create(EXCHANGE_URL).toURL();
-            final byte[] body = this.getExchangeBody(code).getBytes(StandardCharsets.UTF_8);
-            final HttpURLConnection c = (HttpURLConnection) url.openConnection();
-
-            String auth = this.clientID + ":" + this.clientSecret;
-            auth = new String(Base64.getEncoder().encode(auth.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
-
-            c.setRequestMethod("POST");
-            c.setDoInput(true);
-            c.setDoOutput(true);
-            c.setRequestProperty("Accept", "application/json");
-            c.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-            c.setRequestProperty("Content-Length", Integer.toString(body.length));
-            c.setRequestProperty("Authorization", "Basic " + auth);
-            c.setRequestProperty("User-Agent", YanDiskConstants.USER_AGENT);
-
-            try (OutputStream os = c.getOutputStream()) {
-                os.write(body);
-                os.flush();
-            }
-
-            final int status = c.getResponseCode();
+        final byte[] body = this.getExchangeBody(code).getBytes(StandardCharsets.UTF_8);
+
+        String auth = this.clientID + ":" + this.clientSecret;
+        auth = new String(Base64.getEncoder().encode(auth.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        final TransportRequest request = TransportRequest.builder(EXCHANGE_URL)
+                .method("POST")
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Authorization", "Basic " + auth)
+                .header("User-Agent", YanDiskConstants.USER_AGENT)
+                .body(body)
+                .build();
+
+        try (TransportResponse response = this.transport.send(request)) {
+            final int status = response.status();
             if (status < 200 || status > 299)
-                throw new IOException("Non-2XX HTTP response code " + status + " (" + c.getResponseMessage() + ")");
+                throw new IOException("Non-2XX HTTP response code " + status);
 
             JsonObject object;
-            try (InputStream is = c.getInputStream();
-                 InputStreamReader r = new InputStreamReader(is, StandardCharsets.UTF_8)
-            ) {
+            try (InputStreamReader r = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
                 object = GSON.fromJson(r, JsonObject.class);
             }
 
@@ -2,6 +2,7 @@ package io.github.wasabithumb.yandisk4j.auth;
 
 import io.github.wasabithumb.yandisk4j.auth.scope.AuthScope;
 import io.github.wasabithumb.yandisk4j.auth.scope.AuthScopeSet;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -19,6 +20,7 @@ public abstract class AbstractAuthHandlerBuilder implements AuthHandlerBuilder {
     protected String deviceName = null;
     protected String redirectURI = null;
     protected String state = null;
+    protected Transport transport = Transport.defaultTransport();
 
     //
 
@@ -93,6 +95,12 @@ public abstract class AbstractAuthHandlerBuilder implements AuthHandlerBuilder {
         return this;
     }
 
+    @Override
+    public @NotNull AuthHandlerBuilder transport(@NotNull Transport transport) {
+        this.transport = transport;
+        return this;
+    }
+
     @Override
     public abstract @NotNull AuthHandler build() throws IllegalStateException;
 
@@ -1,6 +1,7 @@
 package io.github.wasabithumb.yandisk4j.auth;
 
 import io.github.wasabithumb.yandisk4j.auth.scope.AuthScope;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -91,6 +92,14 @@ public interface AuthHandlerBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link Transport} used to exchange the authorization code.
+     * By default, {@link Transport#defaultTransport()} is used.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    @NotNull AuthHandlerBuilder transport(@NotNull Transport transport);
+
     /**
      * The state string to pass through OAuth as-is.
      * @throws IllegalArgumentException The state string is too long (more than 1024 characters)
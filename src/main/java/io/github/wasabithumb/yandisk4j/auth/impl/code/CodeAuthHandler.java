@@ -3,6 +3,7 @@ package io.github.wasabithumb.yandisk4j.auth.impl.code;
 import io.github.wasabithumb.yandisk4j.auth.AbstractAuthHandler;
 import io.github.wasabithumb.yandisk4j.auth.AuthScheme;
 import io.github.wasabithumb.yandisk4j.auth.scope.AuthScope;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -20,9 +21,10 @@ class CodeAuthHandler extends AbstractAuthHandler {
             @Nullable String deviceID,
             @Nullable String deviceName,
             @Nullable String redirectURI,
-            @Nullable String state
+            @Nullable String state,
+            @NotNull Transport transport
     ) {
-        super(clientID, clientSecret, scopes, deviceID, deviceName, state);
+        super(clientID, clientSecret, scopes, deviceID, deviceName, state, transport);
         this.redirectURI = redirectURI;
     }
 
@@ -17,7 +17,8 @@ public class CodeAuthHandlerBuilder extends AbstractAuthHandlerBuilder {
                 this.deviceID,
                 this.deviceName,
                 this.redirectURI,
-                this.state
+                this.state,
+                this.transport
         );
     }
 
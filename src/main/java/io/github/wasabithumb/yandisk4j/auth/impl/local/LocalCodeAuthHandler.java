@@ -8,6 +8,7 @@ import io.github.wasabithumb.yandisk4j.auth.scope.AuthScope;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskLimitException;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -38,9 +39,10 @@ class LocalCodeAuthHandler extends AbstractAuthHandler {
             @Nullable String state,
             int port,
             @NotNull String successMessage,
-            @NotNull String errorMessage
+            @NotNull String errorMessage,
+            @NotNull Transport transport
     ) {
-        super(clientID, clientSecret, scopes, deviceID, deviceName, state);
+        super(clientID, clientSecret, scopes, deviceID, deviceName, state, transport);
         this.redirectURI = redirectURI;
         this.port = port;
         this.successMessage = successMessage;
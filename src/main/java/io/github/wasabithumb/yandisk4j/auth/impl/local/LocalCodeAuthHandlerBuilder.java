@@ -101,7 +101,8 @@ public class LocalCodeAuthHandlerBuilder extends AbstractAuthHandlerBuilder {
                 this.state,
                 this.port,
                 this.successMessage,
-                this.errorMessage
+                this.errorMessage,
+                this.transport
         );
     }
 
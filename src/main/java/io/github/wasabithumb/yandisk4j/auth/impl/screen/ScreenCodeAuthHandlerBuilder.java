@@ -25,7 +25,8 @@ public class ScreenCodeAuthHandlerBuilder extends AbstractAuthHandlerBuilder {
                 this.assertScopes(),
                 this.deviceID,
                 this.deviceName,
-                this.state
+                this.state,
+                this.transport
         );
     }
 
@@ -0,0 +1,20 @@
+package io.github.wasabithumb.yandisk4j.except;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The task was cancelled before it completed.
+ * @since 0.5.0
+ */
+public final class YanDiskCancelledException extends YanDiskException {
+
+    public YanDiskCancelledException(@NotNull String message) {
+        super(message);
+    }
+
+    @Override
+    public @NotNull String getMessage() {
+        return super.getMessage();
+    }
+
+}
@@ -7,7 +7,8 @@ import org.jetbrains.annotations.NotNull;
  */
 public sealed abstract class YanDiskException
         extends RuntimeException
-        permits YanDiskAPIException, YanDiskGatewayException, YanDiskIOException, YanDiskLimitException, YanDiskOperationException
+        permits YanDiskAPIException, YanDiskCancelledException, YanDiskGatewayException, YanDiskIOException,
+                YanDiskLimitException, YanDiskOperationException, YanDiskUnavailableException
 {
 
     public YanDiskException(@NotNull String message) {
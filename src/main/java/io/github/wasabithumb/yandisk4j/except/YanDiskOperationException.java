@@ -11,6 +11,10 @@ public final class YanDiskOperationException extends YanDiskException {
         super(message);
     }
 
+    public YanDiskOperationException(@NotNull String message, @NotNull Throwable cause) {
+        super(message, cause);
+    }
+
     @Override
     public @NotNull String getMessage() {
         return super.getMessage();
@@ -0,0 +1,35 @@
+package io.github.wasabithumb.yandisk4j.except;
+
+import io.github.wasabithumb.yandisk4j.transport.CircuitOpenException;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The request was not sent because the API has recently been failing, and a
+ * {@link io.github.wasabithumb.yandisk4j.transport.CircuitBreaker CircuitBreaker} is open.
+ * @since 0.5.0
+ */
+public final class YanDiskUnavailableException extends YanDiskException {
+
+    public YanDiskUnavailableException(@NotNull String message, @NotNull CircuitOpenException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public @NotNull String getMessage() {
+        return super.getMessage();
+    }
+
+    @Override
+    public @NotNull CircuitOpenException getCause() {
+        return (CircuitOpenException) super.getCause();
+    }
+
+    /**
+     * The time until the API will be tried again, in milliseconds.
+     * @see CircuitOpenException#remaining()
+     */
+    public long remaining() {
+        return this.getCause().remaining();
+    }
+
+}
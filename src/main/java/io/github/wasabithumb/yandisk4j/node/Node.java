@@ -1,11 +1,15 @@
 package io.github.wasabithumb.yandisk4j.node;
 
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import io.github.wasabithumb.yandisk4j.node.path.NodePath;
 import io.github.wasabithumb.yandisk4j.util.JsonUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
 import java.time.OffsetDateTime;
 
 @ApiStatus.NonExtendable
@@ -31,6 +35,77 @@ public sealed interface Node permits FileNode, DirectoryNode {
         }
     }
 
+    /**
+     * Reads a node from the next object in the given reader, without building an intermediate tree.
+     * Unrecognized properties are skipped.
+     * @since 0.5.0
+     */
+    static @NotNull Node fromJson(@NotNull JsonReader reader) throws IOException, IllegalArgumentException {
+        String type = null;
+        String name = null;
+        String path = null;
+        String created = null;
+        String modified = null;
+        String md5 = null;
+        String mimeType = null;
+        long size = -1L;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.NUMBER && key.equals("size")) {
+                size = reader.nextLong();
+                continue;
+            }
+            if (token != JsonToken.STRING) {
+                reader.skipValue();
+                continue;
+            }
+            switch (key) {
+                case "type" -> type = reader.nextString();
+                case "name" -> name = reader.nextString();
+                case "path" -> path = reader.nextString();
+                case "created" -> created = reader.nextString();
+                case "modified" -> modified = reader.nextString();
+                case "md5" -> md5 = reader.nextString();
+                case "mime_type" -> mimeType = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        final NodePath nodePath = NodePath.parse(requireProperty(path, "path"));
+        final String nodeName = requireProperty(name, "name");
+        final OffsetDateTime nodeCreated = OffsetDateTime.parse(requireProperty(created, "created"));
+        final OffsetDateTime nodeModified = OffsetDateTime.parse(requireProperty(modified, "modified"));
+
+        switch (requireProperty(type, "type")) {
+            case "file":
+                if (size == -1L)
+                    throw new IllegalArgumentException("JSON object has no number property \"size\"");
+                return new FileNode(
+                        nodePath,
+                        nodeName,
+                        nodeCreated,
+                        nodeModified,
+                        requireProperty(md5, "md5"),
+                        requireProperty(mimeType, "mime_type"),
+                        size
+                );
+            case "dir":
+                return new DirectoryNode(nodePath, nodeName, nodeCreated, nodeModified);
+            default:
+                throw new IllegalArgumentException("Invalid node type \"" + type + "\"");
+        }
+    }
+
+    private static @NotNull String requireProperty(@Nullable String value, @NotNull String key) {
+        if (value == null)
+            throw new IllegalArgumentException("JSON object has no string property \"" + key + "\"");
+        return value;
+    }
+
     //
 
     @NotNull NodePath path();
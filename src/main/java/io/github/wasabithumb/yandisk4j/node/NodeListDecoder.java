@@ -0,0 +1,145 @@
+package io.github.wasabithumb.yandisk4j.node;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Decodes listing responses in a single pass over a {@link JsonReader}, building {@link Node}s directly
+ * instead of first parsing the response into a {@link com.google.gson.JsonObject JsonObject} tree.
+ * @since 0.5.0
+ */
+@ApiStatus.Internal
+public final class NodeListDecoder {
+
+    /**
+     * The properties of each item read by {@link Node#fromJson(JsonReader)}.
+     */
+    public static final List<String> NODE_FIELDS = List.of(
+            "type", "name", "path", "created", "modified", "md5", "mime_type", "size"
+    );
+
+    /**
+     * Provides the value of the {@code fields} query parameter which limits a listing response to the
+     * properties read by {@link #decode(JsonReader, boolean)}.
+     * @param embedded As in {@link #decode(JsonReader, boolean)}.
+     */
+    public static @NotNull String fields(boolean embedded) {
+        final String prefix = embedded ? "_embedded.items." : "items.";
+        final StringJoiner ret = new StringJoiner(",");
+        if (embedded) ret.add("type");
+        for (String field : NODE_FIELDS) ret.add(prefix + field);
+        return ret.toString();
+    }
+
+    /**
+     * Decodes a listing response.
+     * @param embedded If true, items are read from {@code _embedded.items} (as in a
+     *                 <a href="https://yandex.com/dev/disk-api/doc/en/reference/meta">metadata</a> response).
+     *                 Otherwise, items are read from {@code items}. A metadata response with a {@code type}
+     *                 but no items, as for a file or a projected empty directory, yields an empty listing.
+     */
+    public static @NotNull Listing decode(@NotNull JsonReader reader, boolean embedded) throws IOException, IllegalArgumentException {
+        List<Node> items = null;
+        String type = null;
+        String error = null;
+        String errorDescription = null;
+        String description = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String key = reader.nextName();
+            switch (key) {
+                case "items" -> {
+                    if (embedded) {
+                        reader.skipValue();
+                    } else {
+                        items = readItems(reader);
+                    }
+                }
+                case "_embedded" -> {
+                    if (embedded && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            if (reader.nextName().equals("items")) {
+                                items = readItems(reader);
+                            } else {
+                                reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                case "type" -> type = readOptionalString(reader);
+                case "error" -> error = readOptionalString(reader);
+                case "error_description" -> errorDescription = readOptionalString(reader);
+                case "description" -> description = readOptionalString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (error != null) {
+            return new Listing(
+                    Collections.emptyList(),
+                    type,
+                    error,
+                    errorDescription != null ? errorDescription : description
+            );
+        }
+        if (items == null && embedded && type != null) items = Collections.emptyList();
+        if (items == null) {
+            throw new IllegalArgumentException("JSON object has no array property \"" +
+                    (embedded ? "_embedded.items" : "items") + "\"");
+        }
+        return new Listing(items, type, null, null);
+    }
+
+    private static @NotNull List<Node> readItems(@NotNull JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY)
+            throw new IllegalArgumentException("JSON object has no array property \"items\"");
+
+        final List<Node> ret = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT)
+                throw new IllegalArgumentException("JSON object has non-object member @ items[" + ret.size() + "]");
+            ret.add(Node.fromJson(reader));
+        }
+        reader.endArray();
+        return Collections.unmodifiableList(ret);
+    }
+
+    private static @Nullable String readOptionalString(@NotNull JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) return reader.nextString();
+        reader.skipValue();
+        return null;
+    }
+
+    //
+
+    /**
+     * A decoded listing.
+     * @param items The listed nodes. Empty if {@link #error()} is set.
+     * @param type The top-level {@code type} property, if any.
+     * @param error The error code reported by the API, if any.
+     * @param errorDescription The description of the {@link #error()}, if any.
+     */
+    public record Listing(
+            @NotNull List<Node> items,
+            @Nullable String type,
+            @Nullable String error,
+            @Nullable String errorDescription
+    ) { }
+
+}
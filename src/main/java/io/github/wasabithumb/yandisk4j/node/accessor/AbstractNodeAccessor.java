@@ -2,23 +2,20 @@ package io.github.wasabithumb.yandisk4j.node.accessor;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
 import io.github.wasabithumb.yandisk4j.util.JsonUtil;
 import io.github.wasabithumb.yandisk4j.util.YanDiskConstants;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URI;
-import java.net.URL;
-import java.util.function.BiFunction;
-
 @ApiStatus.Internal
 sealed class AbstractNodeAccessor implements NodeAccessor permits NodeAwaiter, NodeDownloader, NodeUploader {
 
     protected static <T extends AbstractNodeAccessor> @NotNull T fromJson(
             @NotNull JsonObject json,
-            @NotNull BiFunction<String, String, T> construct
+            @NotNull Transport transport,
+            @NotNull Constructor<T> construct
     ) throws IllegalArgumentException {
         final String href = JsonUtil.getStringProperty(json, "href");
         final String method = JsonUtil.getStringProperty(json, "method");
@@ -27,14 +24,16 @@ sealed class AbstractNodeAccessor implements NodeAccessor permits NodeAwaiter, N
             if (templated.getAsJsonPrimitive().getAsBoolean())
                 throw new IllegalArgumentException("No rule to handle templated URL: " + href);
         }
-        return construct.apply(href, method);
+        return construct.apply(href, method, transport);
     }
 
     protected final String href;
     protected final String method;
-    public AbstractNodeAccessor(@NotNull String href, @NotNull String method) {
+    protected final Transport transport;
+    public AbstractNodeAccessor(@NotNull String href, @NotNull String method, @NotNull Transport transport) {
         this.href = href;
         this.method = method;
+        this.transport = transport;
     }
 
     @Override
@@ -48,12 +47,19 @@ sealed class AbstractNodeAccessor implements NodeAccessor permits NodeAwaiter, N
     }
 
     @NotNull
-    protected final HttpURLConnection openConnection() throws IOException {
-        final URL url = URI.create(this.href()).toURL();
-        final HttpURLConnection ret = (HttpURLConnection) url.openConnection();
-        ret.setRequestMethod(this.method());
-        ret.setRequestProperty("User-Agent", YanDiskConstants.USER_AGENT);
-        return ret;
+    protected final TransportRequest.Builder request() {
+        return TransportRequest.builder(this.href())
+                .method(this.method())
+                .header("User-Agent", YanDiskConstants.USER_AGENT);
+    }
+
+    //
+
+    @FunctionalInterface
+    protected interface Constructor<T extends AbstractNodeAccessor> {
+
+        @NotNull T apply(@NotNull String href, @NotNull String method, @NotNull Transport transport);
+
     }
 
 }
@@ -0,0 +1,140 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.transport.RetryPolicy;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.util.BackoffUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers shared by the file download strategies.
+ */
+@ApiStatus.Internal
+final class DownloadSupport {
+
+    private static final long INITIAL_BACKOFF = 500L;
+    private static final long MAX_BACKOFF = 8000L;
+
+    /**
+     * Returns true if a download which failed with the given exception may succeed if attempted again.
+     * @param transport The transport which the download was made through
+     * @param reading True if the failure happened while reading the response body. Other failures are not
+     *                retried if the {@link Transport#isRetrying() transport retries} requests itself, since
+     *                they have already been retried there.
+     */
+    static boolean isRetryable(@NotNull IOException e, @NotNull Transport transport, boolean reading) {
+        if (e instanceof ChangedException) return false;
+        if (!reading && transport.isRetrying()) return false;
+        if (e instanceof StatusException se) return RetryPolicy.isRetryable(se.status());
+        return RetryPolicy.isRetryable(e);
+    }
+
+    /**
+     * Reads the validator of a response which is suitable for {@code If-Range}. Weak entity tags are not.
+     */
+    static @Nullable String validator(@NotNull TransportResponse response) {
+        final String etag = response.header("ETag");
+        if (etag != null && !etag.startsWith("W/")) return etag;
+        return response.header("Last-Modified");
+    }
+
+    /**
+     * Waits before the given attempt (starting at 1 for the first retry).
+     */
+    static void backoff(int attempt, @NotNull IOException failure) throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(BackoffUtil.delay(INITIAL_BACKOFF, MAX_BACKOFF, 2d, 0.5d, attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting to retry");
+            ex.addSuppressed(failure);
+            throw ex;
+        }
+    }
+
+    /**
+     * Moves a complete part file over its target.
+     */
+    static void replace(@NotNull File part, @NotNull File target) throws IOException {
+        try {
+            Files.move(
+                    part.toPath(),
+                    target.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Parses a {@code Content-Range} header such as {@code bytes 100-199/1000} or {@code bytes *}{@code /1000}.
+     * @return First byte, last byte and total length; or null if the header is absent or invalid. Unknown
+     *         values are -1.
+     */
+    static long @Nullable [] parseContentRange(@Nullable String header) {
+        if (header == null) return null;
+        header = header.trim();
+        if (!header.startsWith("bytes ")) return null;
+        final int slash = header.indexOf('/');
+        if (slash == -1) return null;
+
+        final String range = header.substring(6, slash).trim();
+        final String length = header.substring(slash + 1).trim();
+        try {
+            final long[] ret = new long[] { -1L, -1L, -1L };
+            if (!length.equals("*")) ret[2] = Long.parseLong(length);
+            if (!range.equals("*")) {
+                final int dash = range.indexOf('-');
+                if (dash == -1) return null;
+                ret[0] = Long.parseLong(range.substring(0, dash));
+                ret[1] = Long.parseLong(range.substring(dash + 1));
+            }
+            return ret;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //
+
+    /**
+     * A response had a status code which the download cannot handle.
+     */
+    static final class StatusException extends IOException {
+
+        private final int status;
+        StatusException(int status) {
+            super("Non-2XX HTTP response code " + status);
+            this.status = status;
+        }
+
+        int status() {
+            return this.status;
+        }
+
+    }
+
+    /**
+     * The remote file changed part way through a download which cannot start over.
+     */
+    static final class ChangedException extends IOException {
+
+        ChangedException() {
+            super("Remote file changed during the download");
+        }
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.transfer.TransferContext;
+import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Uploads a file by mapping consecutive regions of it into memory and handing each region to the transport
+ * with {@link TransportUpload#write(java.nio.ByteBuffer)}. Transports which accept buffers directly send the
+ * mapped pages without copying them onto the heap. Progress is reported once per region.
+ */
+@ApiStatus.Internal
+final class FileUpload implements TransferService.Job {
+
+    /** Size of each mapped region */
+    static final long REGION_SIZE = 4L << 20;
+
+    private final NodeUploader uploader;
+    private final File file;
+    FileUpload(@NotNull NodeUploader uploader, @NotNull File file) {
+        this.uploader = uploader;
+        this.file = file;
+    }
+
+    //
+
+    @Override
+    public void run(@NotNull TransferContext context) throws IOException, YanDiskException {
+        this.upload(context);
+    }
+
+    /**
+     * Runs the upload on the calling thread, without reporting progress.
+     */
+    void run() throws IOException, YanDiskException {
+        this.upload(null);
+    }
+
+    private void upload(@Nullable TransferContext context) throws IOException, YanDiskException {
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (context != null) context.total(size);
+
+            final TransportUpload upload = this.uploader.transport.upload(this.uploader.request().build(), size);
+            if (context != null) context.onCancel(upload::abort);
+            try {
+                long position = 0L;
+                while (position < size) {
+                    final long len = Math.min(REGION_SIZE, size - position);
+                    upload.write(channel.map(FileChannel.MapMode.READ_ONLY, position, len));
+                    position += len;
+                    if (context != null) context.advance(len);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Abandon the exchange, so that a truncated body is not committed as the file
+                upload.abort();
+                throw e;
+            }
+
+            try (TransportResponse response = upload.response()) {
+                this.uploader.unwrapResponseCode(response.status());
+            }
+        }
+    }
+
+}
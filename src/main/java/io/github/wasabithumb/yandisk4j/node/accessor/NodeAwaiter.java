@@ -6,43 +6,60 @@ import io.github.wasabithumb.yandisk4j.except.YanDiskAPIException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskOperationException;
+import io.github.wasabithumb.yandisk4j.except.YanDiskUnavailableException;
+import io.github.wasabithumb.yandisk4j.transport.CircuitOpenException;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
 import io.github.wasabithumb.yandisk4j.util.JsonUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 
 @ApiStatus.Internal
 public final class NodeAwaiter extends AbstractNodeAccessor {
 
     private static final Gson GSON = new Gson();
+    public static @NotNull NodeAwaiter fromJson(@NotNull JsonObject json, @NotNull Transport transport) {
+        return AbstractNodeAccessor.fromJson(json, transport, NodeAwaiter::new);
+    }
+
     public static @NotNull NodeAwaiter fromJson(@NotNull JsonObject json) {
-        return AbstractNodeAccessor.fromJson(json, NodeAwaiter::new);
+        return fromJson(json, Transport.defaultTransport());
+    }
+
+    public NodeAwaiter(@NotNull String href, @NotNull String method, @NotNull Transport transport) {
+        super(href, method, transport);
     }
 
     public NodeAwaiter(@NotNull String href, @NotNull String method) {
-        super(href, method);
+        this(href, method, Transport.defaultTransport());
     }
 
     public @NotNull String getStatus() throws YanDiskException {
         JsonObject ob;
-        try {
-            HttpURLConnection c = this.openConnection();
-            c.setRequestProperty("Accept", "application/json");
+        try (TransportResponse response = this.transport.send(this.request()
+                .header("Accept", "application/json")
+                .build()
+        )) {
+            final int status = response.status();
+            if (status < 200 || status > 299)
+                throw new IOException("Non-2XX HTTP response code " + status);
 
-            try (InputStream is = c.getInputStream();
-                 InputStreamReader r = new InputStreamReader(is, StandardCharsets.UTF_8)
-            ) {
+            try (InputStreamReader r = new InputStreamReader(response.body(), StandardCharsets.UTF_8)) {
                 ob = GSON.fromJson(r, JsonObject.class);
             }
+        } catch (CircuitOpenException e) {
+            throw new YanDiskUnavailableException("Failed to get status", e);
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to get status", e);
         }
 
+        if (ob == null)
+            throw new YanDiskOperationException("Status endpoint provided no data");
+
         if (ob.has("error"))
             throw YanDiskAPIException.fromJSON(ob);
 
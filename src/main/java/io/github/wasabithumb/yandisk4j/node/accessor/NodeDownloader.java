@@ -4,35 +4,121 @@ import com.google.gson.JsonObject;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
 import io.github.wasabithumb.yandisk4j.transfer.Transfer;
+import io.github.wasabithumb.yandisk4j.transfer.TransferContext;
+import io.github.wasabithumb.yandisk4j.transfer.TransferPriority;
 import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
 import io.github.wasabithumb.yandisk4j.util.StreamUtil;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.util.concurrent.Callable;
 
 public final class NodeDownloader extends AbstractNodeAccessor {
 
+    public static @NotNull NodeDownloader fromJson(@NotNull JsonObject json, @NotNull Transport transport) {
+        return AbstractNodeAccessor.fromJson(json, transport, NodeDownloader::new);
+    }
+
     public static @NotNull NodeDownloader fromJson(@NotNull JsonObject json) {
-        return AbstractNodeAccessor.fromJson(json, NodeDownloader::new);
+        return fromJson(json, Transport.defaultTransport());
     }
 
-    private static final TransferService TRANSFER_SERVICE = new TransferService("Download");
+    private TransferService transferService = null;
+    private TransferPriority priority = TransferPriority.NORMAL;
+    private int maxAttempts = 5;
+    private int segments = 1;
+
+    public NodeDownloader(@NotNull String href, @NotNull String method, @NotNull Transport transport) {
+        super(href, method, transport);
+    }
 
     public NodeDownloader(@NotNull String href, @NotNull String method) {
-        super(href, method);
+        this(href, method, Transport.defaultTransport());
     }
 
     //
 
+    /**
+     * Sets the service which runs asynchronous downloads started by this downloader.
+     * If null or unset, {@link TransferService#defaultService()} is used.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeDownloader service(@Nullable TransferService service) {
+        this.transferService = service;
+        return this;
+    }
+
+    /**
+     * Sets the priority of asynchronous downloads started by this downloader. Default is
+     * {@link TransferPriority#NORMAL}.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeDownloader priority(@NotNull TransferPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of attempts made by downloads to a {@link File}. After a network error,
+     * the download is retried from where it stopped, waiting between attempts with exponential backoff. If the
+     * transport {@link Transport#isRetrying() retries} requests itself, only failures while reading the body are
+     * retried here, so that a request is not retried by both. Default is 5.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeDownloader maxAttempts(@Range(from = 1L, to = Integer.MAX_VALUE) int maxAttempts) {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("Max attempts must be positive (got " + maxAttempts + ")");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the number of connections over which downloads to a {@link File} are made at once. If greater than 1
+     * and the server reports the size of the file, the file is split into that many byte ranges (each at least
+     * 1 MiB) which are fetched at the same time and written directly to their offsets. The connections after the
+     * first run on the {@link #service(TransferService) service}, counting against its concurrency limit, even when
+     * downloading with {@link #read(File)}; whichever have not started once the first segment is done are fetched
+     * one after another on the downloading thread. If the remote file changes part way through, the download fails.
+     * Segmented downloads do not resume from a partial file left by an earlier download. Default is 1.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeDownloader segments(@Range(from = 1L, to = Integer.MAX_VALUE) int segments) {
+        if (segments < 1)
+            throw new IllegalArgumentException("Segment count must be positive (got " + segments + ")");
+        this.segments = segments;
+        return this;
+    }
+
+    private @NotNull TransferService transferService() {
+        final TransferService service = this.transferService;
+        return service == null ? TransferService.defaultService() : service;
+    }
+
+    private @NotNull TransportResponse send() throws IOException {
+        final TransportResponse response = this.transport.send(this.request().build());
+        final int status = response.status();
+        if (status < 200 || status > 299) {
+            response.close();
+            throw new IOException("Non-2XX HTTP response code " + status);
+        }
+        return response;
+    }
+
     /**
      * Starts reading the download stream.
      */
     public @NotNull InputStream open() throws YanDiskException {
         try {
-            HttpURLConnection c = this.openConnection();
-            return c.getInputStream();
+            return this.send().body();
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to download file", e);
         }
@@ -47,43 +133,67 @@ public final class NodeDownloader extends AbstractNodeAccessor {
         return this.open();
     }
 
-    private @NotNull Transfer readAsync(@NotNull Callable<OutputStream> os) throws YanDiskIOException {
-        try {
-            HttpURLConnection c = this.openConnection();
-            return TRANSFER_SERVICE.submit(c::getInputStream, os, c.getContentLengthLong());
-        } catch (IOException e) {
-            throw new YanDiskIOException("Failed to download file", e);
-        }
+    private @NotNull Transfer readAsync(@NotNull Callable<OutputStream> output) {
+        return this.transferService().submit((TransferContext context) -> {
+            try (TransportResponse response = this.send()) {
+                context.onCancel(response);
+                context.total(response.contentLength());
+                try (InputStream is = response.body();
+                     OutputStream os = output.call()
+                ) {
+                    context.onCancel(os);
+                    StreamUtil.pipe(is, os, context.buffer(), context::advance);
+                }
+            } catch (IOException | YanDiskException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AssertionError("Provider threw an illegal exception", e);
+            }
+        }, -1L, this.priority);
     }
 
     /**
-     * Downloads the file asynchronously, writing it to the specified output stream.
-     * @throws YanDiskIOException Initial connection could not be made
+     * Downloads the file asynchronously, writing it to the specified output stream. The download request is
+     * made once the transfer leaves the queue of its {@link #service(TransferService) service}; failure to
+     * connect is reported through {@link Transfer#error()}.
      */
     public @NotNull Transfer readAsync(@NotNull OutputStream os) throws YanDiskIOException {
         return this.readAsync(() -> os);
     }
 
     /**
-     * Reads the download stream to a file.
+     * Reads the download stream to a file. The content is first written to a sibling file with the
+     * {@code .part} extension, which replaces the target once complete. If the part file already exists
+     * (for instance, left behind by an interrupted download), the download resumes from its end, provided
+     * the remote file has not changed since; this is checked with a {@code .part.tag} file kept beside it.
+     * Network errors are retried from where the download stopped, up to the {@link #maxAttempts(int) maximum
+     * number of attempts}.
      * @see #readAsync(File)
      */
     public void read(@NotNull File file) throws YanDiskException {
-        try (InputStream is = this.open();
-             OutputStream os = new FileOutputStream(file, false)
-        ) {
-            StreamUtil.pipe(is, os);
+        try {
+            if (this.segments > 1) {
+                new SegmentedDownload(this, file, this.segments, this.maxAttempts)
+                        .run(this.transferService().executor(this.priority));
+            } else {
+                new ResumableDownload(this, file, this.maxAttempts).run();
+            }
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to pipe download to file \"" + file.getAbsolutePath() + "\"", e);
         }
     }
 
     /**
-     * Reads the download stream to a file asynchronously.
+     * Reads the download stream to a file asynchronously. Like {@link #read(File)}, the download resumes from
+     * a partial file and is retried after network errors. If more than one {@link #segments(int) segment} is
+     * configured, the progress of every segment is reported through the single returned transfer.
      * @see #read(File)
      */
     public @NotNull Transfer readAsync(@NotNull File file) throws YanDiskException {
-        return this.readAsync(() -> new FileOutputStream(file, false));
+        final TransferService.Job job = this.segments > 1 ?
+                new SegmentedDownload(this, file, this.segments, this.maxAttempts) :
+                new ResumableDownload(this, file, this.maxAttempts);
+        return this.transferService().submit(job, -1L, this.priority);
     }
 
 }
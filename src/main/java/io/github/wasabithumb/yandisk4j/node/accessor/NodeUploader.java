@@ -6,34 +6,99 @@ import io.github.wasabithumb.yandisk4j.except.YanDiskGatewayException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskLimitException;
 import io.github.wasabithumb.yandisk4j.transfer.Transfer;
+import io.github.wasabithumb.yandisk4j.transfer.TransferContext;
+import io.github.wasabithumb.yandisk4j.transfer.TransferPriority;
 import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
 import io.github.wasabithumb.yandisk4j.util.StreamUtil;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.io.*;
-import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.concurrent.Callable;
 
 /**
  * Handles uploading data to a file. Use {@link #write(InputStream)} to write the data.
  */
 public final class NodeUploader extends AbstractNodeAccessor {
 
+    public static @NotNull NodeUploader fromJson(@NotNull JsonObject json, @NotNull Transport transport) {
+        return AbstractNodeAccessor.fromJson(json, transport, NodeUploader::new);
+    }
+
     public static @NotNull NodeUploader fromJson(@NotNull JsonObject json) {
-        return AbstractNodeAccessor.fromJson(json, NodeUploader::new);
+        return fromJson(json, Transport.defaultTransport());
     }
 
-    private static final TransferService TRANSFER_SERVICE = new TransferService("Upload");
+    private TransferService transferService = null;
+    private TransferPriority priority = TransferPriority.NORMAL;
+
+    public NodeUploader(@NotNull String href, @NotNull String method, @NotNull Transport transport) {
+        super(href, method, transport);
+    }
 
     public NodeUploader(@NotNull String href, @NotNull String method) {
-        super(href, method);
+        this(href, method, Transport.defaultTransport());
     }
 
     //
 
-    private void unwrapResponseCode(int response) throws YanDiskException {
+    /**
+     * Sets the service which runs asynchronous uploads started by this uploader.
+     * If null or unset, {@link TransferService#defaultService()} is used.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeUploader service(@Nullable TransferService service) {
+        this.transferService = service;
+        return this;
+    }
+
+    /**
+     * Sets the priority of asynchronous uploads started by this uploader. Default is
+     * {@link TransferPriority#NORMAL}.
+     * @since 0.5.0
+     */
+    @Contract("_ -> this")
+    public @NotNull NodeUploader priority(@NotNull TransferPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    private @NotNull TransferService transferService() {
+        final TransferService service = this.transferService;
+        return service == null ? TransferService.defaultService() : service;
+    }
+
+    private @NotNull Transfer submit(@NotNull Callable<InputStream> input, long size) {
+        return this.transferService().submit((TransferContext context) -> {
+            try (InputStream is = input.call();
+                 UploadStream os = this.openStream(size)
+            ) {
+                context.onCancel(is);
+                context.onCancel(os::abort);
+                try {
+                    StreamUtil.pipe(is, os, context.buffer(), context::advance);
+                } catch (IOException | RuntimeException e) {
+                    // Abandon the exchange, so that a truncated body is not committed as the file
+                    os.abort();
+                    throw e;
+                }
+            } catch (IOException | YanDiskException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AssertionError("Provider threw an illegal exception", e);
+            }
+        }, size, this.priority);
+    }
+
+    void unwrapResponseCode(int response) throws YanDiskException {
         if (200 <= response && response <= 299) return;
         if (response == 413)
             throw new YanDiskLimitException("File too large (HTTP 413)");
@@ -48,27 +113,35 @@ public final class NodeUploader extends AbstractNodeAccessor {
      * Starts uploading. Any data written to the stream before {@link OutputStream#close() close()} is sent
      * as the file content. The call to {@code close()} itself may throw {@link YanDiskException} in addition to
      * {@link IOException}.
+     * <p>
+     * The content is streamed as it is written and is never buffered in full. If {@code size} is known, the
+     * request is sent with a fixed {@code Content-Length} and exactly that many bytes must be written before
+     * closing the stream. Otherwise, chunked transfer encoding is used.
+     * </p>
+     * @param size Exact number of bytes that will be written, or -1 if unknown.
+     * @since 0.5.0
      */
-    public @NotNull OutputStream open() throws YanDiskException {
-        HttpURLConnection c;
-        OutputStream os;
+    public @NotNull OutputStream open(@Range(from = -1L, to = Long.MAX_VALUE) long size) throws YanDiskException {
+        return this.openStream(size);
+    }
+
+    private @NotNull UploadStream openStream(long size) throws YanDiskException {
+        final TransportUpload upload;
         try {
-            c = this.openConnection();
-            c.setDoOutput(true);
-            os = c.getOutputStream();
+            upload = this.transport.upload(this.request().build(), size);
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to upload file", e);
         }
-        return new FilterOutputStream(os) {
-            @Override
-            public void close() throws IOException {
-                try {
-                    NodeUploader.this.unwrapResponseCode(c.getResponseCode());
-                } finally {
-                    super.close();
-                }
-            }
-        };
+        return new UploadStream(upload);
+    }
+
+    /**
+     * Starts uploading. Any data written to the stream before {@link OutputStream#close() close()} is sent
+     * as the file content. Alias for {@code open(-1L)}.
+     * @see #open(long)
+     */
+    public @NotNull OutputStream open() throws YanDiskException {
+        return this.open(-1L);
     }
 
     /**
@@ -83,26 +156,47 @@ public final class NodeUploader extends AbstractNodeAccessor {
 
     /**
      * Uploads the content of an {@link InputStream}.
+     * @param size Exact size of the content, or -1 if unknown. This is sent as the {@code Content-Length}, so the
+     *             stream must provide exactly this many bytes.
      * @see #writeAsync(InputStream, long)
+     * @since 0.5.0
      */
-    public void write(@NotNull InputStream content) throws YanDiskException {
-        try (OutputStream os = this.open()) {
-            StreamUtil.pipe(content, os);
+    public void write(
+            @NotNull InputStream content,
+            @Range(from = -1L, to = Long.MAX_VALUE) long size
+    ) throws YanDiskException {
+        try (UploadStream os = this.openStream(size)) {
+            try {
+                StreamUtil.pipe(content, os);
+            } catch (IOException | RuntimeException e) {
+                os.abort();
+                throw e;
+            }
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to upload file", e);
         }
     }
 
+    /**
+     * Uploads the content of an {@link InputStream}. Alias for {@code write(content, -1L)}.
+     * @see #write(InputStream, long)
+     * @see #writeAsync(InputStream)
+     */
+    public void write(@NotNull InputStream content) throws YanDiskException {
+        this.write(content, -1L);
+    }
+
     /**
      * Uploads the content of an {@link InputStream} asynchronously.
-     * @param size Expected size of data to transfer, or -1.
+     * @param size Exact size of the content, or -1 if unknown. This is sent as the {@code Content-Length}, so the
+     *             stream must provide exactly this many bytes.
      * @see #write(InputStream)
      */
     public @NotNull Transfer writeAsync(
             @NotNull InputStream content,
             @Range(from = -1L, to = Long.MAX_VALUE) long size
     ) {
-        return TRANSFER_SERVICE.submit(() -> content, this::open, size);
+        return this.submit(() -> content, size);
     }
 
     /**
@@ -113,7 +207,7 @@ public final class NodeUploader extends AbstractNodeAccessor {
     public @NotNull Transfer writeAsync(
             @NotNull InputStream content
     ) {
-        return TRANSFER_SERVICE.submit(() -> content, this::open);
+        return this.submit(() -> content, -1L);
     }
 
 
@@ -125,7 +219,7 @@ public final class NodeUploader extends AbstractNodeAccessor {
         try {
             URLConnection c = content.openConnection();
             try (InputStream is = c.getInputStream()) {
-                this.write(is);
+                this.write(is, c.getContentLengthLong());
             }
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to open URL (" + content + ")", e);
@@ -140,7 +234,8 @@ public final class NodeUploader extends AbstractNodeAccessor {
     public @NotNull Transfer writeAsync(@NotNull URL content) throws YanDiskIOException {
         try {
             URLConnection c = content.openConnection();
-            return TRANSFER_SERVICE.submit(c::getInputStream, this::open, c.getContentLengthLong());
+            final long size = c.getContentLengthLong();
+            return this.submit(c::getInputStream, size);
         } catch (IOException e) {
             throw new YanDiskIOException("Failed to open URL (" + content + ")", e);
         }
@@ -148,23 +243,62 @@ public final class NodeUploader extends AbstractNodeAccessor {
 
 
     /**
-     * Uploads the content of a {@link File}.
+     * Uploads the content of a {@link File}. The file is read in memory-mapped regions, which the transport
+     * sends without copying where it is able to.
      * @see #writeAsync(File)
      */
     public void write(@NotNull File file) throws YanDiskException {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            this.write(fis);
+        try {
+            new FileUpload(this, file).run();
         } catch (IOException e) {
-            throw new YanDiskIOException("Failed to read file (" + file.getAbsolutePath() + ")", e);
+            throw new YanDiskIOException("Failed to upload file (" + file.getAbsolutePath() + ")", e);
         }
     }
 
     /**
-     * Uploads the content of a {@link File} asynchronously.
+     * Uploads the content of a {@link File} asynchronously. Like {@link #write(File)}, the file is read in
+     * memory-mapped regions, and the progress of the transfer advances as each region is sent.
      * @see #write(File)
      */
     public @NotNull Transfer writeAsync(@NotNull File file) {
-        return TRANSFER_SERVICE.submit(() -> new FileInputStream(file), this::open, file.length());
+        return this.transferService().submit(new FileUpload(this, file), file.length(), this.priority);
+    }
+
+    //
+
+    private final class UploadStream extends FilterOutputStream {
+
+        private final TransportUpload upload;
+        private volatile boolean closed;
+        UploadStream(@NotNull TransportUpload upload) {
+            super(upload.body());
+            this.upload = upload;
+            this.closed = false;
+        }
+
+        @Override
+        public void write(byte @NotNull [] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        /**
+         * Abandons the upload, so that the content written so far is not committed. Closing the stream
+         * afterward does nothing.
+         */
+        void abort() {
+            this.closed = true;
+            this.upload.abort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) return;
+            this.closed = true;
+            try (TransportResponse response = this.upload.response()) {
+                NodeUploader.this.unwrapResponseCode(response.status());
+            }
+        }
+
     }
 
 }
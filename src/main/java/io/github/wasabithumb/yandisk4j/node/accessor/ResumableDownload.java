@@ -0,0 +1,249 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.transfer.TransferContext;
+import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.util.BufferPool;
+import io.github.wasabithumb.yandisk4j.util.StreamUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Downloads to a file through a sibling {@code .part} file. If the part file already exists, the download
+ * resumes from its length with a {@code Range} request, and after a network error the download is retried
+ * from wherever it stopped. The part file replaces the target once complete.
+ * <p>
+ * The total length and validator ({@code ETag} or {@code Last-Modified}) of the remote file are kept in a
+ * second sibling {@code .part.tag} file, so that a part file is only resumed if it belongs to the same version
+ * of the remote file. The validator is sent as {@code If-Range}, and the download starts over if the server
+ * reports a different length. A part file without this record is not resumed.
+ */
+@ApiStatus.Internal
+final class ResumableDownload implements TransferService.Job {
+
+    private final NodeDownloader downloader;
+    private final File file;
+    private final File part;
+    private final File tag;
+    private final int maxAttempts;
+    private long reported;
+    private boolean reading;
+    private ByteBuffer buffer;
+    ResumableDownload(@NotNull NodeDownloader downloader, @NotNull File file, int maxAttempts) {
+        this.downloader = downloader;
+        this.file = file;
+        this.part = new File(file.getPath() + ".part");
+        this.tag = new File(file.getPath() + ".part.tag");
+        this.maxAttempts = maxAttempts;
+        this.reported = 0L;
+        this.reading = false;
+        this.buffer = null;
+    }
+
+    //
+
+    @Override
+    public void run(@NotNull TransferContext context) throws IOException, YanDiskException {
+        this.buffer = context.buffer();
+        this.download(context);
+    }
+
+    /**
+     * Runs the download on the calling thread, without reporting progress.
+     */
+    void run() throws IOException {
+        try (BufferPool.Lease lease = BufferPool.shared(BufferPool.DEFAULT_SIZE).lease()) {
+            this.buffer = lease.buffer();
+            this.download(null);
+        } finally {
+            this.buffer = null;
+        }
+    }
+
+    private void download(@Nullable TransferContext context) throws IOException {
+        IOException failure = null;
+        for (int attempt=0; attempt < this.maxAttempts; attempt++) {
+            if (attempt != 0) {
+                if (context != null && context.isCancelled()) break;
+                DownloadSupport.backoff(attempt, failure);
+            }
+            try {
+                // A stale part file is discarded once its response is closed, then the attempt starts over
+                while (!this.attempt(context)) this.restart();
+                DownloadSupport.replace(this.part, this.file);
+                Files.deleteIfExists(this.tag.toPath());
+                return;
+            } catch (IOException e) {
+                if (failure != null) e.addSuppressed(failure);
+                failure = e;
+                if (!DownloadSupport.isRetryable(e, this.downloader.transport, this.reading)) break;
+            }
+        }
+        throw failure;
+    }
+
+    /**
+     * Makes one request and writes its body to the part file.
+     * @return False if the part file belongs to a different version of the remote file, and must be discarded
+     *         before trying again
+     */
+    private boolean attempt(@Nullable TransferContext context) throws IOException {
+        this.reading = false;
+        long offset = this.part.isFile() ? this.part.length() : 0L;
+        final PartTag known = offset == 0L ? null : PartTag.read(this.tag);
+        if (offset != 0L && known == null) {
+            // Nothing to tell which version of the file the part belongs to
+            this.restart();
+            offset = 0L;
+        }
+
+        TransportRequest.Builder builder = this.downloader.request();
+        if (known != null) {
+            builder.header("Range", "bytes=" + offset + "-");
+            if (known.validator() != null) builder.header("If-Range", known.validator());
+        }
+
+        try (TransportResponse response = this.downloader.transport.send(builder.build())) {
+            if (context != null) context.onCancel(response);
+            final int status = response.status();
+            long total;
+            boolean append;
+
+            if (status == 206) {
+                final long[] range = DownloadSupport.parseContentRange(response.header("Content-Range"));
+                if (range == null || range[0] != offset)
+                    throw new IOException("Server responded with an unexpected range (" + response.header("Content-Range") + ")");
+                total = range[2];
+                if (known != null && !known.matches(total, DownloadSupport.validator(response))) {
+                    // Remote file has changed since the part was written
+                    return false;
+                }
+                append = true;
+            } else if (status == 416 && known != null) {
+                final long[] range = DownloadSupport.parseContentRange(response.header("Content-Range"));
+                if (range != null && range[2] == offset && known.matches(offset, null)) {
+                    // Part file is already complete
+                    this.report(context, offset, offset);
+                    return true;
+                }
+                // Part file is longer than the remote file; start over
+                return false;
+            } else if (200 <= status && status <= 299) {
+                // Range was not honored or the remote file has changed, start from the beginning
+                total = response.contentLength();
+                append = false;
+                offset = 0L;
+                final PartTag tag = new PartTag(total, DownloadSupport.validator(response));
+                if (tag.total() != -1L || tag.validator() != null) {
+                    tag.write(this.tag);
+                } else {
+                    Files.deleteIfExists(this.tag.toPath());
+                }
+            } else {
+                throw new DownloadSupport.StatusException(status);
+            }
+
+            this.report(context, total, offset);
+            this.reading = true;
+            try (ReadableByteChannel src = response.channel();
+                 FileChannel dst = FileChannel.open(this.part.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)
+            ) {
+                if (append) {
+                    dst.position(offset);
+                } else {
+                    dst.truncate(0L);
+                }
+                final long[] position = { offset };
+                StreamUtil.pipe(src, dst, this.buffer, (long n) -> {
+                    // Bytes written again after starting over were already reported
+                    position[0] += n;
+                    if (position[0] <= this.reported) return;
+                    if (context != null) context.advance(position[0] - this.reported);
+                    this.reported = position[0];
+                });
+            }
+            if (total != -1L && this.part.length() != total)
+                throw new EOFException("Download ended after " + this.part.length() + " of " + total + " bytes");
+        }
+        return true;
+    }
+
+    /**
+     * Discards the part file and its tag.
+     */
+    private void restart() throws IOException {
+        Files.deleteIfExists(this.tag.toPath());
+        if (this.part.exists() && !this.part.delete()) throw new IOException("Failed to delete stale part file " + this.part);
+    }
+
+    /**
+     * Sets the total and accounts for bytes which were already present in the part file.
+     */
+    private void report(@Nullable TransferContext context, long total, long offset) {
+        if (context == null) return;
+        context.total(total);
+        if (offset > this.reported) {
+            context.advance(offset - this.reported);
+            this.reported = offset;
+        }
+    }
+
+    //
+
+    /**
+     * Identifies the version of the remote file that a part file was downloaded from.
+     * @param total Total length of the remote file, or -1 if unknown
+     * @param validator Strong {@code ETag} or {@code Last-Modified} date of the remote file, if known
+     */
+    record PartTag(long total, @Nullable String validator) {
+
+        /**
+         * Reads a tag file.
+         * @return The tag, or null if the file does not exist or is invalid
+         */
+        static @Nullable PartTag read(@NotNull File file) throws IOException {
+            if (!file.isFile()) return null;
+            final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) return null;
+            try {
+                return new PartTag(
+                        Long.parseLong(lines.get(0).trim()),
+                        lines.size() > 1 && !lines.get(1).isEmpty() ? lines.get(1) : null
+                );
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        void write(@NotNull File file) throws IOException {
+            Files.writeString(
+                    file.toPath(),
+                    this.total + "\n" + (this.validator == null ? "" : this.validator) + "\n",
+                    StandardCharsets.UTF_8
+            );
+        }
+
+        /**
+         * Returns true if a response with the given total length and validator describes the same file. Values
+         * which either side does not know are not compared.
+         */
+        boolean matches(long total, @Nullable String validator) {
+            if (this.total != -1L && total != -1L && this.total != total) return false;
+            return this.validator == null || validator == null || this.validator.equals(validator);
+        }
+
+    }
+
+}
@@ -0,0 +1,375 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.transfer.TransferContext;
+import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.util.BufferPool;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Downloads a file over several connections at once. The first request asks for the whole file from offset 0;
+ * if the server honors the range, the reported length is divided into segments and the remaining segments are
+ * requested with their own {@code Range} headers. Each segment writes to its own region of a sibling
+ * {@code .part} file with positional {@link FileChannel} writes, and is retried from where it stopped after a
+ * network error. The part file replaces the target once every segment is complete. If the server does not
+ * honor the range, the file is downloaded over the first connection alone.
+ * <p>
+ * Since segments leave holes in the part file until they finish, its length says nothing about which bytes
+ * have been written. The part file is therefore deleted if the download fails, and any {@code .part.tag} left
+ * by a {@link ResumableDownload} is deleted before writing, so that neither resumes from it.
+ */
+@ApiStatus.Internal
+final class SegmentedDownload implements TransferService.Job {
+
+    /** Files are not split into segments smaller than this */
+    static final long MIN_SEGMENT_SIZE = 1L << 20;
+
+    private final NodeDownloader downloader;
+    private final File file;
+    private final File part;
+    private final File tag;
+    private final int segments;
+    private final int maxAttempts;
+    private volatile boolean failed;
+    private String validator;
+    SegmentedDownload(@NotNull NodeDownloader downloader, @NotNull File file, int segments, int maxAttempts) {
+        this.downloader = downloader;
+        this.file = file;
+        this.part = new File(file.getPath() + ".part");
+        this.tag = new File(file.getPath() + ".part.tag");
+        this.segments = segments;
+        this.maxAttempts = maxAttempts;
+        this.failed = false;
+        this.validator = null;
+    }
+
+    //
+
+    @Override
+    public void run(@NotNull TransferContext context) throws IOException, YanDiskException {
+        this.download(context, context.buffer(), context.executor());
+    }
+
+    /**
+     * Runs the download, with the first segment on the calling thread, without reporting progress.
+     * @param executor Executor for the other segments, such as that of a {@link TransferService}
+     */
+    void run(@NotNull Executor executor) throws IOException {
+        try (BufferPool.Lease lease = BufferPool.shared(BufferPool.DEFAULT_SIZE).lease()) {
+            this.download(null, lease.buffer(), executor);
+        }
+    }
+
+    /**
+     * Runs the download.
+     * @param buffer Buffer used by the segments run on this thread; others take a buffer of the same size from the pool
+     * @param executor Executor offered the segments after the first
+     */
+    private void download(
+            @Nullable TransferContext context,
+            @NotNull ByteBuffer buffer,
+            @NotNull Executor executor
+    ) throws IOException {
+        if (context != null) context.onCancel(() -> this.failed = true);
+        Files.deleteIfExists(this.tag.toPath());
+        try (FileChannel channel = FileChannel.open(
+                this.part.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        )) {
+            this.download(context, channel, buffer, executor);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(this.part.toPath());
+            } catch (IOException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+        DownloadSupport.replace(this.part, this.file);
+    }
+
+    private void download(
+            @Nullable TransferContext context,
+            @NotNull FileChannel channel,
+            @NotNull ByteBuffer buffer,
+            @NotNull Executor executor
+    ) throws IOException {
+        final TransportResponse first = this.downloader.transport.send(this.downloader.request()
+                .header("Range", "bytes=0-")
+                .build());
+
+        final Segment head;
+        final List<Segment> tail = new ArrayList<>();
+        try {
+            final int status = first.status();
+            long total = -1L;
+            if (status == 206) {
+                final long[] range = DownloadSupport.parseContentRange(first.header("Content-Range"));
+                if (range == null || range[0] != 0L)
+                    throw new IOException("Server responded with an unexpected range (" + first.header("Content-Range") + ")");
+                total = range[2];
+                this.validator = DownloadSupport.validator(first);
+            } else if (status == 416 && isEmpty(first)) {
+                // Empty file; there is no first byte to ask for
+                first.close();
+                if (context != null) context.total(0L);
+                return;
+            } else if (status < 200 || status > 299) {
+                throw new DownloadSupport.StatusException(status);
+            }
+
+            if (total == -1L) {
+                // Range not honored or length unknown; download over this connection alone
+                if (context != null) context.total(first.contentLength());
+                head = new Segment(context, channel, 0L, -1L, -1L);
+            } else {
+                if (context != null) context.total(total);
+                final int count = (int) Math.max(Math.min(this.segments, total / MIN_SEGMENT_SIZE), 1L);
+                final long size = total / count;
+                head = new Segment(context, channel, 0L, count == 1 ? total - 1L : size - 1L, total);
+                for (int i=1; i < count; i++) {
+                    final long start = size * i;
+                    final long end = (i == count - 1) ? total - 1L : start + size - 1L;
+                    tail.add(new Segment(context, channel, start, end, total));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            first.close();
+            throw e;
+        }
+
+        // Tail segments are offered to the executor, and any which have not started once the head is done are run
+        // here instead, so the download never waits on a task which is stuck in the queue
+        final BufferPool pool = BufferPool.shared(buffer.capacity());
+        for (Segment segment : tail) {
+            try {
+                executor.execute(() -> {
+                    if (!segment.claim()) return;
+                    try (BufferPool.Lease lease = pool.lease()) {
+                        segment.complete(null, lease.buffer());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Service is shutting down; the segment is run here
+            }
+        }
+        head.claim();
+        head.complete(first, buffer);
+        for (Segment segment : tail) {
+            if (segment.claim()) segment.complete(null, buffer);
+        }
+
+        // Every segment has now been claimed; wait for those running elsewhere
+        final List<IOException> failures = new ArrayList<>();
+        boolean interrupted = false;
+        tail.add(0, head);
+        for (Segment segment : tail) {
+            while (true) {
+                try {
+                    segment.done.get();
+                } catch (ExecutionException e) {
+                    failures.add(e.getCause() instanceof IOException io ? io : new IOException(e.getCause()));
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    this.failed = true;
+                    continue;
+                }
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for segments");
+            for (IOException e : failures) {
+                if (!(e instanceof AbortedException)) ex.addSuppressed(e);
+            }
+            throw ex;
+        }
+        if (failures.isEmpty()) return;
+
+        // Report the segment which failed first, rather than those it aborted
+        IOException failure = failures.stream()
+                .filter((IOException e) -> !(e instanceof AbortedException))
+                .findFirst()
+                .orElse(failures.get(0));
+        for (IOException e : failures) {
+            if (e != failure && !(e instanceof AbortedException)) failure.addSuppressed(e);
+        }
+        throw failure;
+    }
+
+    /**
+     * Returns true if a 416 response reports that the remote file is empty.
+     */
+    private static boolean isEmpty(@NotNull TransportResponse response) {
+        final long[] range = DownloadSupport.parseContentRange(response.header("Content-Range"));
+        return range != null && range[2] == 0L;
+    }
+
+    //
+
+    private final class Segment {
+
+        private final TransferContext context;
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+        private final long total;
+        private final AtomicBoolean claimed;
+        private final CompletableFuture<Void> done;
+        private boolean reading;
+        Segment(@Nullable TransferContext context, @NotNull FileChannel channel, long start, long end, long total) {
+            this.context = context;
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.total = total;
+            this.claimed = new AtomicBoolean(false);
+            this.done = new CompletableFuture<>();
+            this.reading = false;
+        }
+
+        /**
+         * Claims the segment for the calling thread.
+         * @return False if another thread has already claimed it
+         */
+        boolean claim() {
+            return this.claimed.compareAndSet(false, true);
+        }
+
+        /**
+         * Runs the segment, unless another segment has already failed, and completes {@link #done} with the
+         * outcome. Never throws.
+         */
+        void complete(@Nullable TransportResponse response, @NotNull ByteBuffer buffer) {
+            try {
+                if (response == null && SegmentedDownload.this.failed) throw new AbortedException();
+                this.run(response, buffer);
+                this.done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                SegmentedDownload.this.failed = true;
+                this.done.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * Downloads the segment, retrying from the current position after network errors.
+         * @param response A response which has already been opened at the start of the segment, if any
+         * @param buffer Buffer to read through
+         */
+        private void run(@Nullable TransportResponse response, @NotNull ByteBuffer buffer) throws IOException {
+            IOException failure = null;
+            for (int attempt=0; attempt < SegmentedDownload.this.maxAttempts; attempt++) {
+                if (attempt != 0) {
+                    if (SegmentedDownload.this.failed) {
+                        final AbortedException aborted = new AbortedException();
+                        aborted.addSuppressed(failure);
+                        throw aborted;
+                    }
+                    DownloadSupport.backoff(attempt, failure);
+                }
+                try {
+                    this.reading = false;
+                    if (response == null) response = this.open();
+                    if (this.context != null) this.context.onCancel(response);
+                    try (TransportResponse r = response) {
+                        this.read(r, buffer);
+                    }
+                    return;
+                } catch (IOException e) {
+                    if (failure != null) e.addSuppressed(failure);
+                    failure = e;
+                    if (e instanceof AbortedException) throw e;
+                    if (!DownloadSupport.isRetryable(e, SegmentedDownload.this.downloader.transport, this.reading) ||
+                            this.end == -1L) break;
+                } finally {
+                    response = null;
+                }
+            }
+            SegmentedDownload.this.failed = true;
+            throw failure;
+        }
+
+        /**
+         * Requests the rest of the segment. The validator of the first response is sent as {@code If-Range}, and
+         * the response must describe the same version of the file, since the segments before this one may
+         * already have been written from it.
+         */
+        private @NotNull TransportResponse open() throws IOException {
+            final String validator = SegmentedDownload.this.validator;
+            TransportRequest.Builder builder = SegmentedDownload.this.downloader.request()
+                    .header("Range", "bytes=" + this.position + "-" + this.end);
+            if (validator != null) builder.header("If-Range", validator);
+
+            final TransportResponse response = SegmentedDownload.this.downloader.transport.send(builder.build());
+            final int status = response.status();
+            final long[] range = DownloadSupport.parseContentRange(response.header("Content-Range"));
+            if (status != 206 || range == null || range[0] != this.position) {
+                response.close();
+                if (status < 200 || status > 299) throw new DownloadSupport.StatusException(status);
+                if (status != 206 && validator != null) throw new DownloadSupport.ChangedException();
+                throw new IOException("Server responded with an unexpected range (" + response.header("Content-Range") + ")");
+            }
+            final String current = DownloadSupport.validator(response);
+            if (range[2] != this.total || (validator != null && current != null && !validator.equals(current))) {
+                response.close();
+                throw new DownloadSupport.ChangedException();
+            }
+            return response;
+        }
+
+        private void read(@NotNull TransportResponse response, @NotNull ByteBuffer buf) throws IOException {
+            this.reading = true;
+            try (ReadableByteChannel src = response.channel()) {
+                while (this.end == -1L || this.position <= this.end) {
+                    if (SegmentedDownload.this.failed) throw new AbortedException();
+                    buf.clear();
+                    if (this.end != -1L) buf.limit((int) Math.min(buf.capacity(), this.end - this.position + 1L));
+                    final int read = src.read(buf);
+                    if (read == -1) {
+                        if (this.end == -1L) return;
+                        throw new EOFException("Segment ended at " + this.position + " before " + (this.end + 1L));
+                    }
+                    buf.flip();
+                    long pos = this.position;
+                    while (buf.hasRemaining()) pos += this.channel.write(buf, pos);
+                    this.position = pos;
+                    if (this.context != null && read != 0) this.context.advance(read);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Stops a segment because another segment has failed.
+     */
+    private static final class AbortedException extends IOException {
+
+        AbortedException() {
+            super("Another segment failed");
+        }
+
+    }
+
+}
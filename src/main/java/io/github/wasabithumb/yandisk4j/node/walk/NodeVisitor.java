@@ -0,0 +1,29 @@
+package io.github.wasabithumb.yandisk4j.node.walk;
+
+import io.github.wasabithumb.yandisk4j.node.DirectoryNode;
+import io.github.wasabithumb.yandisk4j.node.Node;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives the nodes found while walking a directory tree. Since directories are explored
+ * at the same time, methods of a visitor may be called concurrently from several threads and
+ * nodes are not visited in any particular order.
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface NodeVisitor {
+
+    /**
+     * Called for each node found beneath the root. Throwing from this method ends the walk.
+     */
+    void visit(@NotNull Node node);
+
+    /**
+     * Decides whether a directory which has been {@link #visit(Node) visited} should be explored.
+     * The default implementation always returns true.
+     */
+    default boolean descend(@NotNull DirectoryNode directory) {
+        return true;
+    }
+
+}
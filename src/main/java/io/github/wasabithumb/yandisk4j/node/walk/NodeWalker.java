@@ -0,0 +1,220 @@
+package io.github.wasabithumb.yandisk4j.node.walk;
+
+import io.github.wasabithumb.yandisk4j.IYanDisk;
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
+import io.github.wasabithumb.yandisk4j.node.DirectoryNode;
+import io.github.wasabithumb.yandisk4j.node.Node;
+import io.github.wasabithumb.yandisk4j.node.path.NodePath;
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Explores a directory tree by listing pages of directories on a fixed number of threads, so that at
+ * most {@link WalkOptions#maxConcurrency()} listing requests are in flight at once. Each task lists
+ * one page of one directory; full pages schedule the next page, and directories schedule their first page.
+ */
+@ApiStatus.Internal
+public final class NodeWalker implements AutoCloseable {
+
+    /**
+     * Visits every node beneath the root, blocking until the walk is complete.
+     */
+    public static void walk(
+            @NotNull IYanDisk disk,
+            @NotNull NodePath root,
+            @NotNull WalkOptions options,
+            @NotNull NodeVisitor visitor
+    ) throws YanDiskException {
+        try (NodeWalker walker = new NodeWalker(disk, options, visitor)) {
+            walker.start(root).get();
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new YanDiskIOException("Interrupted while walking " + root, new InterruptedIOException());
+        }
+    }
+
+    /**
+     * Provides a stream over every node beneath the root. Listing begins when the terminal operation
+     * begins and pauses while {@link WalkOptions#bufferSize()} nodes are waiting to be consumed.
+     * Closing the stream ends the walk.
+     */
+    public static @NotNull Stream<Node> stream(
+            @NotNull IYanDisk disk,
+            @NotNull NodePath root,
+            @NotNull WalkOptions options
+    ) {
+        final Buffer buffer = new Buffer(options.bufferSize());
+        final NodeWalker walker = new NodeWalker(disk, options, buffer);
+        return StreamSupport.stream(() -> {
+            buffer.attach(walker.start(root));
+            return buffer;
+        }, Buffer.CHARACTERISTICS, false).onClose(walker::close);
+    }
+
+    private static @NotNull RuntimeException rethrow(@NotNull Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error er) throw er;
+        return new CompletionException(t);
+    }
+
+    //
+
+    private final IYanDisk disk;
+    private final WalkOptions options;
+    private final NodeVisitor visitor;
+    private final ExecutorService executor;
+    private final AtomicInteger pending;
+    private final CompletableFuture<Void> done;
+    private NodeWalker(@NotNull IYanDisk disk, @NotNull WalkOptions options, @NotNull NodeVisitor visitor) {
+        this.disk = disk;
+        this.options = options;
+        this.visitor = visitor;
+        this.executor = Executors.newFixedThreadPool(options.maxConcurrency(), new NamedThreadFactory("Walker"));
+        this.pending = new AtomicInteger(0);
+        this.done = new CompletableFuture<>();
+        this.done.whenComplete((Void v, Throwable t) -> this.executor.shutdown());
+    }
+
+    //
+
+    private @NotNull CompletableFuture<Void> start(@NotNull NodePath root) {
+        this.submit(new Task(root, 1, 0));
+        return this.done;
+    }
+
+    private void submit(@NotNull Task task) {
+        this.pending.incrementAndGet();
+        try {
+            this.executor.execute(() -> this.run(task));
+        } catch (RejectedExecutionException e) {
+            // Walker has been closed
+            this.pending.decrementAndGet();
+        }
+    }
+
+    private void run(@NotNull Task task) {
+        try {
+            if (this.done.isDone()) return;
+            final int pageSize = this.options.pageSize();
+            final List<Node> page = this.disk.list(task.path(), pageSize, task.offset());
+            if (page.size() >= pageSize) {
+                this.submit(new Task(task.path(), task.depth(), task.offset() + pageSize));
+            }
+            for (Node node : page) {
+                if (this.done.isDone()) return;
+                this.visitor.visit(node);
+                if (task.depth() < this.options.maxDepth() &&
+                        node instanceof DirectoryNode directory &&
+                        this.visitor.descend(directory)
+                ) {
+                    this.submit(new Task(directory.path(), task.depth() + 1, 0));
+                }
+            }
+        } catch (Throwable t) {
+            if (this.done.completeExceptionally(t) && this.visitor instanceof Buffer buffer) buffer.end();
+        } finally {
+            if (this.pending.decrementAndGet() == 0 && this.done.complete(null) &&
+                    this.visitor instanceof Buffer buffer) buffer.end();
+        }
+    }
+
+    @Override
+    public void close() {
+        this.done.cancel(false);
+        this.executor.shutdownNow();
+    }
+
+    //
+
+    private record Task(@NotNull NodePath path, int depth, int offset) { }
+
+    /**
+     * Hands nodes from the walking threads to the stream consumer, blocking the walking threads
+     * while full.
+     */
+    private static final class Buffer extends Spliterators.AbstractSpliterator<Node> implements NodeVisitor {
+
+        static final int CHARACTERISTICS = Spliterator.NONNULL;
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> queue;
+        private CompletableFuture<Void> future;
+        private boolean ended;
+        Buffer(int capacity) {
+            super(Long.MAX_VALUE, CHARACTERISTICS);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.future = null;
+            this.ended = false;
+        }
+
+        void attach(@NotNull CompletableFuture<Void> future) {
+            this.future = future;
+        }
+
+        private void put(@NotNull Object object) {
+            try {
+                this.queue.put(object);
+            } catch (InterruptedException e) {
+                // Walker has been closed
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+
+        void end() {
+            try {
+                this.queue.put(END);
+            } catch (InterruptedException e) {
+                // Walker has been closed, nobody is listening
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void visit(@NotNull Node node) {
+            this.put(node);
+        }
+
+        @Override
+        public boolean tryAdvance(@NotNull Consumer<? super Node> action) {
+            if (this.ended) return false;
+            final Object next;
+            try {
+                next = this.queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new YanDiskIOException("Interrupted while walking", new InterruptedIOException());
+            }
+            if (next == END) {
+                this.ended = true;
+                if (this.future.isCompletedExceptionally()) {
+                    try {
+                        this.future.join();
+                    } catch (CompletionException e) {
+                        throw rethrow(e);
+                    }
+                }
+                return false;
+            }
+            action.accept((Node) next);
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package io.github.wasabithumb.yandisk4j.node.walk;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Options for {@link io.github.wasabithumb.yandisk4j.IYanDisk#walk(io.github.wasabithumb.yandisk4j.node.path.NodePath, WalkOptions) walking}
+ * a directory tree.
+ * @since 0.5.0
+ */
+public final class WalkOptions {
+
+    private static final WalkOptions DEFAULTS = builder().build();
+
+    /**
+     * Provides the default options: 8 concurrent requests, pages of 100, no depth limit and
+     * a stream buffer of 1024 nodes.
+     */
+    public static @NotNull WalkOptions defaults() {
+        return DEFAULTS;
+    }
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    //
+
+    private final int maxConcurrency;
+    private final int pageSize;
+    private final int maxDepth;
+    private final int bufferSize;
+    private WalkOptions(int maxConcurrency, int pageSize, int maxDepth, int bufferSize) {
+        this.maxConcurrency = maxConcurrency;
+        this.pageSize = pageSize;
+        this.maxDepth = maxDepth;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * The maximum number of listing requests which may be in flight at once.
+     */
+    public int maxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * The number of nodes requested in each page of a directory listing.
+     */
+    public int pageSize() {
+        return this.pageSize;
+    }
+
+    /**
+     * The maximum depth to descend to. The children of the root have a depth of 1.
+     */
+    public int maxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * The number of nodes which may be waiting to be consumed from a walk stream before
+     * listing is paused.
+     */
+    public int bufferSize() {
+        return this.bufferSize;
+    }
+
+    @Contract("-> new")
+    public @NotNull Builder toBuilder() {
+        return new Builder()
+                .maxConcurrency(this.maxConcurrency)
+                .pageSize(this.pageSize)
+                .maxDepth(this.maxDepth)
+                .bufferSize(this.bufferSize);
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "WalkOptions[maxConcurrency=" + this.maxConcurrency +
+                ", pageSize=" + this.pageSize +
+                ", maxDepth=" + this.maxDepth +
+                ", bufferSize=" + this.bufferSize + "]";
+    }
+
+    //
+
+    public static final class Builder {
+
+        private int maxConcurrency;
+        private int pageSize;
+        private int maxDepth;
+        private int bufferSize;
+        private Builder() {
+            this.maxConcurrency = 8;
+            this.pageSize = 100;
+            this.maxDepth = Integer.MAX_VALUE;
+            this.bufferSize = 1024;
+        }
+
+        /**
+         * Sets the maximum number of listing requests which may be in flight at once. Default is 8.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxConcurrency(@Range(from = 1L, to = Integer.MAX_VALUE) int maxConcurrency) {
+            if (maxConcurrency < 1)
+                throw new IllegalArgumentException("Max concurrency must be positive (got " + maxConcurrency + ")");
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the number of nodes requested in each page of a directory listing. Default is 100.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder pageSize(@Range(from = 1L, to = Integer.MAX_VALUE) int pageSize) {
+            if (pageSize < 1)
+                throw new IllegalArgumentException("Page size must be positive (got " + pageSize + ")");
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum depth to descend to. A depth of 1 lists only the children of the root.
+         * By default, there is no limit.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxDepth(@Range(from = 1L, to = Integer.MAX_VALUE) int maxDepth) {
+            if (maxDepth < 1)
+                throw new IllegalArgumentException("Max depth must be positive (got " + maxDepth + ")");
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets the number of nodes which may be waiting to be consumed from a walk stream before
+         * listing is paused. Has no effect when walking with a {@link NodeVisitor}. Default is 1024.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder bufferSize(@Range(from = 1L, to = Integer.MAX_VALUE) int bufferSize) {
+            if (bufferSize < 1)
+                throw new IllegalArgumentException("Buffer size must be positive (got " + bufferSize + ")");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull WalkOptions build() {
+            return new WalkOptions(this.maxConcurrency, this.pageSize, this.maxDepth, this.bufferSize);
+        }
+
+    }
+
+}
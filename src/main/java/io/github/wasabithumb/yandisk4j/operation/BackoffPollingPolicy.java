@@ -0,0 +1,25 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import io.github.wasabithumb.yandisk4j.util.BackoffUtil;
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+record BackoffPollingPolicy(
+        long initialDelay,
+        long maxDelay,
+        double multiplier,
+        double jitter
+) implements PollingPolicy {
+
+    static final BackoffPollingPolicy DEFAULT = new BackoffPollingPolicy(100L, 5000L, 2d, 0.2d);
+
+    BackoffPollingPolicy {
+        BackoffUtil.validate(initialDelay, maxDelay, multiplier, jitter);
+    }
+
+    @Override
+    public long delay(int attempt) {
+        return BackoffUtil.delay(this.initialDelay, this.maxDelay, this.multiplier, this.jitter, attempt);
+    }
+
+}
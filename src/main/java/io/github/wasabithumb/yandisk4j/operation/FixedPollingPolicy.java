@@ -0,0 +1,18 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import org.jetbrains.annotations.ApiStatus;
+
+@ApiStatus.Internal
+record FixedPollingPolicy(long interval) implements PollingPolicy {
+
+    FixedPollingPolicy {
+        if (interval < 0L)
+            throw new IllegalArgumentException("Interval may not be negative (got " + interval + ")");
+    }
+
+    @Override
+    public long delay(int attempt) {
+        return this.interval;
+    }
+
+}
@@ -1,16 +1,14 @@
 package io.github.wasabithumb.yandisk4j.operation;
 
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
-import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskOperationException;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeAwaiter;
-import io.github.wasabithumb.yandisk4j.util.IDVendor;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.StampedLock;
 import java.util.function.Consumer;
 
@@ -22,8 +20,10 @@ final class LiveOperation implements Operation {
     private final List<Consumer<Operation>> statusCallbacks = Collections.synchronizedList(new LinkedList<>());
     private OperationStatus status = OperationStatus.PENDING;
     private YanDiskException exception = null;
-    private long refreshInterval = 1000L;
-    private Daemon daemon = null;
+    private volatile PollingPolicy pollingPolicy = PollingPolicy.backoff();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final CompletableFuture<OperationStatus> future = new CompletableFuture<>();
+    private int attempts = 0;
 
     public LiveOperation(@NotNull NodeAwaiter awaiter) {
         this.awaiter = awaiter;
@@ -31,15 +31,43 @@ final class LiveOperation implements Operation {
 
     //
 
-    private synchronized void initDaemon() {
-        if (this.daemon != null) return;
-        this.daemon = new Daemon(this);
-        this.daemon.start();
+    private void start() {
+        if (this.started.compareAndSet(false, true))
+            OperationPoller.INSTANCE.schedule(this, 0L);
+    }
+
+    /**
+     * Requests the status once, then either completes the operation or schedules the next poll.
+     * Called by the {@link OperationPoller}.
+     */
+    void poll() {
+        OperationStatus status;
+        try {
+            String code = this.awaiter.getStatus();
+            status = switch (code) {
+                case "success" -> OperationStatus.SUCCESS;
+                case "failed" -> OperationStatus.FAILED;
+                case "in-progress" -> OperationStatus.PENDING;
+                default -> throw new YanDiskOperationException("Invalid status code: " + code);
+            };
+        } catch (YanDiskException e) {
+            this.addException(e);
+            status = OperationStatus.FAILED;
+        } catch (RuntimeException e) {
+            this.addException(new YanDiskOperationException("Failed to read operation status", e));
+            status = OperationStatus.FAILED;
+        }
+
+        if (status.isComplete()) {
+            this.updateStatus(status);
+        } else {
+            OperationPoller.INSTANCE.schedule(this, this.pollingPolicy.delay(++this.attempts));
+        }
     }
 
     @Override
     public @NotNull OperationStatus status() throws YanDiskException {
-        this.initDaemon();
+        this.start();
         final long stamp = this.statusLock.readLock();
         try {
             if (this.exception != null) throw this.exception;
@@ -51,7 +79,7 @@ final class LiveOperation implements Operation {
 
     @Override
     public void watch(@NotNull Consumer<Operation> callback) {
-        this.initDaemon();
+        this.start();
         final long stamp = this.statusLock.readLock();
         try {
             if (this.status.isComplete()) return;
@@ -62,24 +90,37 @@ final class LiveOperation implements Operation {
     }
 
     @Override
-    public long getRefreshInterval() {
-        return this.refreshInterval;
+    public @NotNull CompletableFuture<OperationStatus> toCompletableFuture() {
+        this.start();
+        return this.future.copy();
+    }
+
+    @Override
+    public void onComplete(@NotNull Consumer<Operation> callback) {
+        this.start();
+        this.future.whenComplete((OperationStatus s, Throwable t) -> callback.accept(this));
+    }
+
+    @Override
+    public @NotNull PollingPolicy getPollingPolicy() {
+        return this.pollingPolicy;
     }
 
     @Override
-    public void setRefreshInterval(long refreshInterval) {
-        this.refreshInterval = refreshInterval;
+    public void setPollingPolicy(@NotNull PollingPolicy policy) {
+        this.pollingPolicy = policy;
     }
 
     private void updateStatus(@NotNull OperationStatus status) {
         if (!status.isComplete()) throw new IllegalArgumentException();
         List<Consumer<Operation>> callbacks;
+        YanDiskException exception;
 
-        long stamp = this.statusLock.readLock();
+        final long stamp = this.statusLock.writeLock();
         try {
             if (this.status.isComplete()) return;
-            stamp = this.statusLock.tryConvertToWriteLock(stamp);
             this.status = status;
+            exception = this.exception;
             synchronized (this.statusCallbacks) {
                 callbacks = new ArrayList<>(this.statusCallbacks);
                 this.statusCallbacks.clear();
@@ -88,8 +129,21 @@ final class LiveOperation implements Operation {
             this.statusLock.unlock(stamp);
         }
 
-        for (Consumer<Operation> callback : callbacks)
-            callback.accept(this);
+        if (exception != null) {
+            this.future.completeExceptionally(exception);
+        } else {
+            this.future.complete(status);
+        }
+
+        // A failing callback must not keep the others from running
+        for (Consumer<Operation> callback : callbacks) {
+            try {
+                callback.accept(this);
+            } catch (RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
     }
 
     private void addException(@NotNull YanDiskException e) {
@@ -102,60 +156,4 @@ final class LiveOperation implements Operation {
         }
     }
 
-    //
-
-    private static final class Daemon extends Thread {
-
-        private static final IDVendor ID_VENDOR = new IDVendor();
-
-        private final int id;
-        private final LiveOperation operation;
-        Daemon(@NotNull LiveOperation operation) {
-            this.id = ID_VENDOR.next();
-            this.operation = operation;
-            this.setName("YanDisk Operation Daemon #" + (this.id + 1));
-            this.setDaemon(true);
-        }
-
-        @Override
-        public void run() {
-            try {
-                OperationStatus status;
-                try {
-                    status = this.runInternal();
-                } catch (IOException e) {
-                    this.operation.addException(new YanDiskIOException(e));
-                    status = OperationStatus.FAILED;
-                } catch (YanDiskException e) {
-                    this.operation.addException(e);
-                    status = OperationStatus.FAILED;
-                }
-                this.operation.updateStatus(status);
-            } finally {
-                ID_VENDOR.free(this.id);
-            }
-        }
-
-        private @NotNull OperationStatus runInternal() throws YanDiskException, IOException {
-            while (true) {
-                String code = this.operation.awaiter.getStatus();
-                OperationStatus status = switch (code) {
-                    case "success" -> OperationStatus.SUCCESS;
-                    case "failed" -> OperationStatus.FAILED;
-                    case "in-progress" -> OperationStatus.PENDING;
-                    default -> throw new YanDiskOperationException("Invalid status code: " + code);
-                };
-                if (status.isComplete()) {
-                    return status;
-                }
-                try {
-                    TimeUnit.MILLISECONDS.sleep(this.operation.refreshInterval);
-                } catch (InterruptedException e) {
-                    throw new YanDiskOperationException("Daemon interrupted");
-                }
-            }
-        }
-
-    }
-
 }
@@ -4,10 +4,12 @@ import com.google.gson.JsonObject;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.node.accessor.NodeAwaiter;
 import io.github.wasabithumb.yandisk4j.node.path.NodePath;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
 import io.github.wasabithumb.yandisk4j.util.Watchable;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -29,8 +31,12 @@ public sealed interface Operation extends Watchable<Operation> permits TerminalO
 
     Operation FAILED = new TerminalOperation(OperationStatus.FAILED);
 
+    static @NotNull Operation pending(@NotNull JsonObject object, @NotNull Transport transport) {
+        return new LiveOperation(NodeAwaiter.fromJson(object, transport));
+    }
+
     static @NotNull Operation pending(@NotNull JsonObject object) {
-        return new LiveOperation(NodeAwaiter.fromJson(object));
+        return pending(object, Transport.defaultTransport());
     }
 
     //
@@ -58,15 +64,59 @@ public sealed interface Operation extends Watchable<Operation> permits TerminalO
     void watch(@NotNull Consumer<Operation> callback);
 
     /**
-     * Returns the {@link #setRefreshInterval(long) refresh interval}. Default value is 1 second (1000).
+     * Provides a future which completes with the final status ({@link OperationStatus#SUCCESS SUCCESS} or
+     * {@link OperationStatus#FAILED FAILED}) of this operation, or completes exceptionally with the
+     * {@link YanDiskException} which prevented the status from being determined. Starts polling if it has not
+     * already started. Dependent actions which are not async run on a polling thread, and should not block.
+     * Completing the returned future does not affect this operation.
+     * @since 0.5.0
+     */
+    @NotNull CompletableFuture<OperationStatus> toCompletableFuture();
+
+    /**
+     * Adds a callback to execute once this operation completes. If the operation has already completed,
+     * the callback is executed immediately. Starts polling if it has not already started.
+     * The callback runs on a polling thread, and should not block.
+     * @since 0.5.0
+     */
+    void onComplete(@NotNull Consumer<Operation> callback);
+
+    /**
+     * Returns the {@link #setPollingPolicy(PollingPolicy) polling policy}. Default is {@link PollingPolicy#backoff()}.
+     * @since 0.5.0
      */
-    long getRefreshInterval();
+    @NotNull PollingPolicy getPollingPolicy();
 
     /**
-     * Sets the refresh interval (time between updates by the daemon). The daemon starts at the first
+     * Sets the policy which decides the time between status requests. Polling starts at the first
      * call to {@link #status()} or {@link #watch(Consumer)}, and ends when the operation completes.
+     * All pending operations are polled by a shared pool of threads.
+     * @since 0.5.0
+     */
+    void setPollingPolicy(@NotNull PollingPolicy policy);
+
+    /**
+     * Returns the time between status requests. If the {@link #getPollingPolicy() polling policy} does not
+     * poll at a fixed interval, this is its first delay, which is 100 under the default policy.
+     * @deprecated Use {@link #getPollingPolicy()}
+     */
+    @Deprecated
+    default long getRefreshInterval() {
+        final PollingPolicy policy = this.getPollingPolicy();
+        if (policy instanceof FixedPollingPolicy fixed) return fixed.interval();
+        if (policy instanceof BackoffPollingPolicy backoff) return backoff.initialDelay();
+        return policy.delay(1);
+    }
+
+    /**
+     * Sets the refresh interval (time between status requests).
+     * Alias for {@code setPollingPolicy(PollingPolicy.fixed(refreshInterval))}.
      * @param refreshInterval A duration, in milliseconds.
+     * @deprecated Use {@link #setPollingPolicy(PollingPolicy)}
      */
-    void setRefreshInterval(long refreshInterval);
+    @Deprecated
+    default void setRefreshInterval(long refreshInterval) {
+        this.setPollingPolicy(PollingPolicy.fixed(refreshInterval));
+    }
 
 }
@@ -0,0 +1,53 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import io.github.wasabithumb.yandisk4j.util.VirtualThreads;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the status of every pending {@link LiveOperation} on a bounded pool of threads, so that the
+ * number of threads does not grow with the number of operations in flight. Idle threads exit after
+ * 30 seconds. When {@link VirtualThreads#isEnabled() virtual threads are enabled}, a single thread
+ * keeps the schedule and each poll runs on its own virtual thread.
+ */
+@ApiStatus.Internal
+final class OperationPoller {
+
+    static final OperationPoller INSTANCE = new OperationPoller(8, VirtualThreads.factoryIfEnabled("Operation"));
+
+    //
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final ThreadFactory offload;
+    OperationPoller(int threads, @Nullable ThreadFactory offload) {
+        this.executor = new ScheduledThreadPoolExecutor(
+                offload == null ? threads : 1,
+                new NamedThreadFactory(offload == null ? "Operation" : "Operation Scheduler")
+        );
+        this.executor.setKeepAliveTime(30L, TimeUnit.SECONDS);
+        this.executor.allowCoreThreadTimeOut(true);
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.offload = offload;
+    }
+
+    /**
+     * Polls the given operation after the given delay.
+     * @param delay A duration, in milliseconds.
+     */
+    void schedule(@NotNull LiveOperation operation, long delay) {
+        final Runnable task;
+        if (this.offload == null) {
+            task = operation::poll;
+        } else {
+            task = () -> this.offload.newThread(operation::poll).start();
+        }
+        this.executor.schedule(task, Math.max(delay, 0L), TimeUnit.MILLISECONDS);
+    }
+
+}
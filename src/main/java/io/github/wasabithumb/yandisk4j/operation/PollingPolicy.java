@@ -0,0 +1,63 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Decides how long to wait between status requests for a pending {@link Operation}.
+ * The first request is always made immediately.
+ * @see Operation#setPollingPolicy(PollingPolicy)
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface PollingPolicy {
+
+    /**
+     * Polls at a fixed interval.
+     * @param interval A duration, in milliseconds.
+     */
+    @Contract("_ -> new")
+    static @NotNull PollingPolicy fixed(@Range(from = 0L, to = Long.MAX_VALUE) long interval) {
+        return new FixedPollingPolicy(interval);
+    }
+
+    /**
+     * Polls quickly at first, then increasingly slowly. The nth delay is {@code initialDelay * multiplier^(n-1)},
+     * capped at {@code maxDelay}, and then reduced by a random fraction of up to {@code jitter} so that operations
+     * started together do not poll together.
+     * @param initialDelay The delay after the first request, in milliseconds.
+     * @param maxDelay The greatest delay between requests, in milliseconds.
+     * @param multiplier The factor by which the delay grows after each request. At least 1.
+     * @param jitter The greatest fraction of each delay which may be randomly removed, from 0 to 1.
+     */
+    @Contract("_, _, _, _ -> new")
+    static @NotNull PollingPolicy backoff(
+            @Range(from = 0L, to = Long.MAX_VALUE) long initialDelay,
+            @Range(from = 0L, to = Long.MAX_VALUE) long maxDelay,
+            double multiplier,
+            double jitter
+    ) {
+        return new BackoffPollingPolicy(initialDelay, maxDelay, multiplier, jitter);
+    }
+
+    /**
+     * The default policy. Equivalent to {@code backoff(100, 5000, 2, 0.2)}: the delays are roughly
+     * 100ms, 200ms, 400ms and so on up to 5 seconds.
+     * @see #backoff(long, long, double, double)
+     */
+    static @NotNull PollingPolicy backoff() {
+        return BackoffPollingPolicy.DEFAULT;
+    }
+
+    //
+
+    /**
+     * Provides the time to wait before the next status request.
+     * @param attempt The number of status requests which have been made so far and found the operation
+     *                to be pending. Starts at 1.
+     * @return A duration, in milliseconds.
+     */
+    long delay(@Range(from = 1L, to = Integer.MAX_VALUE) int attempt);
+
+}
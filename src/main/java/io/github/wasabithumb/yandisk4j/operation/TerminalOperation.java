@@ -3,6 +3,7 @@ package io.github.wasabithumb.yandisk4j.operation;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 @ApiStatus.Internal
@@ -14,11 +15,21 @@ record TerminalOperation(
     public void watch(@NotNull Consumer<Operation> callback) { }
 
     @Override
-    public long getRefreshInterval() {
-        return -1L;
+    public @NotNull CompletableFuture<OperationStatus> toCompletableFuture() {
+        return CompletableFuture.completedFuture(this.status);
     }
 
     @Override
-    public void setRefreshInterval(long refreshInterval) { }
+    public void onComplete(@NotNull Consumer<Operation> callback) {
+        callback.accept(this);
+    }
+
+    @Override
+    public @NotNull PollingPolicy getPollingPolicy() {
+        return PollingPolicy.backoff();
+    }
+
+    @Override
+    public void setPollingPolicy(@NotNull PollingPolicy policy) { }
 
 }
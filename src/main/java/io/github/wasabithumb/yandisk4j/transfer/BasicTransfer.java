@@ -1,5 +1,6 @@
 package io.github.wasabithumb.yandisk4j.transfer;
 
+import io.github.wasabithumb.yandisk4j.except.YanDiskCancelledException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -7,38 +8,51 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
+/**
+ * A {@link Transfer} which can be updated from several threads at once without locking. The byte count is a
+ * {@link LongAdder}, and callbacks are held in an immutable list which is replaced whenever a callback is added.
+ * Completion swaps the list out for null, so that each callback sees completion exactly once.
+ * <p>
+ * Completion is delivered only once every progress delivery already under way has returned, by whichever thread
+ * finishes last, and progress which arrives after completion is not delivered. Callbacks therefore never see
+ * progress after completion, even when {@link #update(long) update(-1)} races with updates from other threads.
+ */
 @ApiStatus.Internal
 class BasicTransfer implements Transfer {
 
-    private final ReadWriteLock lock;
-    private final List<Consumer<Transfer>> callbacks;
-    private final long total;
-    private long transferred;
-    private boolean done;
-    private YanDiskException error;
+    /** Bit of {@link #state} which is set on completion; the other bits count progress deliveries under way */
+    private static final long COMPLETE = 1L << 62;
+
+    private final LongAdder transferred;
+    private final AtomicReference<List<Consumer<Transfer>>> callbacks;
+    private final AtomicReference<List<Consumer<Transfer>>> completion;
+    private final AtomicLong state;
+    private final AtomicBoolean cancelled;
+    private volatile long total;
+    private volatile YanDiskException error;
+    private volatile Runnable canceller;
     BasicTransfer(long total) {
-        this.lock = new ReentrantReadWriteLock();
-        this.callbacks = new LinkedList<>();
+        this.transferred = new LongAdder();
+        this.callbacks = new AtomicReference<>(Collections.emptyList());
+        this.completion = new AtomicReference<>(null);
+        this.state = new AtomicLong(0L);
+        this.cancelled = new AtomicBoolean(false);
         this.total = total;
-        this.transferred = 0L;
-        this.done = false;
         this.error = null;
+        this.canceller = null;
     }
 
     @Override
     public @Range(from = 0L, to = Long.MAX_VALUE) long transferred() {
-        this.lock.readLock().lock();
-        try {
-            return this.transferred;
-        } finally {
-            this.lock.readLock().unlock();
-        }
+        return this.transferred.sum();
     }
 
     @Override
@@ -46,79 +60,107 @@ class BasicTransfer implements Transfer {
         return this.total;
     }
 
+    void total(@Range(from = -1L, to = Long.MAX_VALUE) long total) {
+        this.total = total;
+    }
+
+    void advance(@Range(from = 0L, to = Long.MAX_VALUE) long bytes) {
+        this.update(bytes);
+    }
+
+    /**
+     * Sets the action which stops the work behind this transfer when it is {@link #cancel() cancelled}. The
+     * canceller is then responsible for completing the transfer once the work has stopped; without one,
+     * cancelling completes the transfer at once.
+     */
+    void canceller(@NotNull Runnable canceller) {
+        this.canceller = canceller;
+    }
+
+    boolean isCancelled() {
+        return this.cancelled.get();
+    }
+
     @Override
     public long update(@Range(from = -1L, to = Long.MAX_VALUE) long bytes) {
         if (bytes == 0L) return 0L;
 
-        List<Consumer<Transfer>> callbacks = this.callbacks;
-        boolean unmoved = true;
+        if (bytes == -1L) {
+            final List<Consumer<Transfer>> callbacks = this.callbacks.getAndSet(null);
+            if (callbacks == null) return bytes;
+            this.completion.set(callbacks);
+            if (this.state.addAndGet(COMPLETE) == COMPLETE) this.complete();
+            return bytes;
+        }
 
-        this.lock.writeLock().lock();
+        this.transferred.add(bytes);
         try {
-            if (bytes == -1L) {
-                if (!this.done) {
-                    callbacks = new ArrayList<>(callbacks);
-                    unmoved = false;
-                    this.callbacks.clear();
+            if (this.state.incrementAndGet() < COMPLETE) {
+                final List<Consumer<Transfer>> callbacks = this.callbacks.get();
+                if (callbacks != null) {
+                    for (Consumer<Transfer> callback : callbacks) {
+                        // Progress which races with completion is dropped
+                        if (this.state.get() >= COMPLETE) break;
+                        callback.accept(this);
+                    }
                 }
-                this.done = true;
-            } else {
-                this.transferred += bytes;
             }
         } finally {
-            this.lock.writeLock().unlock();
-        }
-
-        if (unmoved) this.lock.readLock().lock();
-        try {
-            for (Consumer<Transfer> callback : callbacks)
-                callback.accept(this);
-        } finally {
-            if (unmoved) this.lock.readLock().unlock();
+            // The last delivery to return after completion delivers it
+            if (this.state.decrementAndGet() == COMPLETE) this.complete();
         }
         return bytes;
     }
 
+    private void complete() {
+        final List<Consumer<Transfer>> callbacks = this.completion.getAndSet(null);
+        if (callbacks == null) return;
+        for (Consumer<Transfer> callback : callbacks)
+            callback.accept(this);
+    }
+
     @Override
     public @Nullable YanDiskException error() {
-        this.lock.readLock().lock();
-        try {
-            return this.error;
-        } finally {
-            this.lock.readLock().unlock();
-        }
+        return this.error;
     }
 
     @Override
-    public void raise(@NotNull YanDiskException error) {
-        this.lock.writeLock().lock();
-        try {
-            if (this.error != null) error.addSuppressed(this.error);
-            this.error = error;
-        } finally {
-            this.lock.writeLock().unlock();
-        }
+    public synchronized void raise(@NotNull YanDiskException error) {
+        final YanDiskException previous = this.error;
+        if (previous != null) error.addSuppressed(previous);
+        this.error = error;
     }
 
     @Override
     public void watch(@NotNull Consumer<Transfer> callback) {
-        this.lock.writeLock().lock();
-        try {
-            if (this.done) return;
-            this.callbacks.add(callback);
-        } finally {
-            this.lock.writeLock().unlock();
+        List<Consumer<Transfer>> current;
+        List<Consumer<Transfer>> next;
+        do {
+            current = this.callbacks.get();
+            if (current == null) return;
+            next = new ArrayList<>(current.size() + 1);
+            next.addAll(current);
+            next.add(callback);
+            next = Collections.unmodifiableList(next);
+        } while (!this.callbacks.compareAndSet(current, next));
+    }
+
+    @Override
+    public boolean cancel() {
+        if (this.isDone() || !this.cancelled.compareAndSet(false, true)) return false;
+        this.raise(new YanDiskCancelledException("Transfer was cancelled"));
+        final Runnable canceller = this.canceller;
+        if (canceller != null) {
+            canceller.run();
+        } else {
+            this.update(-1L);
         }
+        return true;
     }
 
     @Override
     public boolean isDone() {
-        this.lock.readLock().lock();
-        try {
-            return this.done;
-        } finally {
-            this.lock.readLock().unlock();
-        }
+        return this.callbacks.get() == null;
     }
 
 }
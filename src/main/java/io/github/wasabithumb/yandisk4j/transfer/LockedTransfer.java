@@ -31,6 +31,11 @@ class LockedTransfer implements Transfer {
         this.backing.watch((Transfer ignored) -> callback.accept(LockedTransfer.this));
     }
 
+    @Override
+    public boolean cancel() {
+        return this.backing.cancel();
+    }
+
     @Override
     public boolean isDone() {
         return this.backing.isDone();
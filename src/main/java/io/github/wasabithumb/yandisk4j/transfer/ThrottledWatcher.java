@@ -0,0 +1,146 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import io.github.wasabithumb.yandisk4j.util.VirtualThreads;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Relays the changes of a {@link Transfer} to a callback on another executor, no more often than the configured
+ * interval and byte delta allow. The transfer thread only checks the thresholds and signals; at most one delivery
+ * is queued at a time, and it reports the state of the transfer when it runs, so updates which arrive while a
+ * delivery is pending are coalesced into it. Each delivery passes a {@link Snapshot snapshot}, so that the
+ * callback sees completion exactly once even if the transfer completes while the callback runs.
+ * @see Transfer#watch(Consumer, long, long, Executor)
+ */
+@ApiStatus.Internal
+final class ThrottledWatcher implements Consumer<Transfer> {
+
+    static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+            VirtualThreads.isEnabled() ?
+                    VirtualThreads.factory("Watch") :
+                    new NamedThreadFactory("Watch")
+    );
+
+    private final Transfer transfer;
+    private final Consumer<Transfer> callback;
+    private final long interval;
+    private final long bytes;
+    private final Executor executor;
+    private final AtomicInteger pending;
+    private volatile long lastTime;
+    private volatile long lastBytes;
+    private volatile boolean finished;
+    ThrottledWatcher(
+            @NotNull Transfer transfer,
+            @NotNull Consumer<Transfer> callback,
+            long interval,
+            long bytes,
+            @NotNull Executor executor
+    ) {
+        this.transfer = transfer;
+        this.callback = callback;
+        this.interval = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.bytes = bytes;
+        this.executor = executor;
+        this.pending = new AtomicInteger(0);
+        this.lastTime = System.nanoTime() - this.interval;
+        this.lastBytes = 0L;
+        this.finished = false;
+    }
+
+    //
+
+    @Override
+    public void accept(@NotNull Transfer ignored) {
+        if (!this.transfer.isDone()) {
+            if (this.transfer.transferred() - this.lastBytes < this.bytes) return;
+            if (this.interval != 0L && System.nanoTime() - this.lastTime < this.interval) return;
+        }
+        if (this.pending.getAndIncrement() != 0) return;
+        try {
+            this.executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            this.pending.set(0);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            this.deliver();
+            missed = this.pending.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver() {
+        if (this.finished) return;
+        final Snapshot snapshot = Snapshot.of(this.transfer);
+        this.lastBytes = snapshot.transferred();
+        this.lastTime = System.nanoTime();
+        if (snapshot.done()) this.finished = true;
+        try {
+            this.callback.accept(snapshot);
+        } catch (RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    //
+
+    /**
+     * The state of a transfer at one moment. Watching a snapshot watches the transfer it was taken from.
+     */
+    private record Snapshot(
+            @NotNull Transfer source,
+            long transferred,
+            long total,
+            boolean done,
+            @Nullable YanDiskException error
+    ) implements Transfer {
+
+        static @NotNull Snapshot of(@NotNull Transfer source) {
+            // Read completion first, so a completed snapshot has the final count
+            final boolean done = source.isDone();
+            return new Snapshot(source, source.transferred(), source.total(), done, source.error());
+        }
+
+        @Override
+        public void watch(@NotNull Consumer<Transfer> callback) {
+            this.source.watch(callback);
+        }
+
+        @Override
+        public boolean isDone() {
+            return this.done;
+        }
+
+        @Override
+        public boolean cancel() {
+            return this.source.cancel();
+        }
+
+        @Override
+        public long update(long bytes) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("Cannot update a snapshot of a Transfer");
+        }
+
+        @Override
+        public void raise(@NotNull YanDiskException error) throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("Cannot raise an exception on a snapshot of a Transfer");
+        }
+
+    }
+
+}
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
 import java.io.IOException;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
 @ApiStatus.NonExtendable
@@ -60,6 +61,44 @@ public interface Transfer extends Watchable<Transfer> {
     @Override
     void watch(@NotNull Consumer<Transfer> callback);
 
+    /**
+     * Adds a callback which is called on the given executor rather than on the thread running the transfer,
+     * so that a slow callback does not slow the transfer. The callback is called once at least {@code interval}
+     * milliseconds have passed and at least {@code bytes} bytes have been transferred since it was last called.
+     * Changes which happen while a call is pending are coalesced into it. Each call receives a read-only snapshot
+     * of the transfer as it was when the call started. The callback receives a completed snapshot exactly once
+     * after the transfer {@link #isDone() completes}, regardless of the thresholds.
+     * @param interval Minimum number of milliseconds between calls, or 0
+     * @param bytes Minimum number of bytes transferred between calls, or 0
+     * @param executor Runs the callback. Calls are never concurrent.
+     * @since 0.5.0
+     */
+    default void watch(
+            @NotNull Consumer<Transfer> callback,
+            @Range(from = 0L, to = Long.MAX_VALUE) long interval,
+            @Range(from = 0L, to = Long.MAX_VALUE) long bytes,
+            @NotNull Executor executor
+    ) {
+        if (interval < 0L)
+            throw new IllegalArgumentException("Interval must not be negative (got " + interval + ")");
+        if (bytes < 0L)
+            throw new IllegalArgumentException("Byte delta must not be negative (got " + bytes + ")");
+        this.watch(new ThrottledWatcher(this, callback, interval, bytes, executor));
+    }
+
+    /**
+     * Adds a callback which is called at most once every {@code interval} milliseconds, on a thread shared by
+     * such callbacks rather than on the thread running the transfer.
+     * @see #watch(Consumer, long, long, Executor)
+     * @since 0.5.0
+     */
+    default void watch(
+            @NotNull Consumer<Transfer> callback,
+            @Range(from = 0L, to = Long.MAX_VALUE) long interval
+    ) {
+        this.watch(callback, interval, 0L, ThrottledWatcher.EXECUTOR);
+    }
+
     /**
      * Updates this transfer.
      * @param bytes The number of additional bytes, or -1 if transfer is complete.
@@ -79,6 +118,18 @@ public interface Transfer extends Watchable<Transfer> {
      */
     void raise(@NotNull YanDiskException error) throws UnsupportedOperationException;
 
+    /**
+     * Cancels the transfer. If it has not started, it never will; if it is running, the streams and HTTP exchange
+     * it uses are closed and the thread running it is interrupted, so that it stops promptly. The error is set to a
+     * {@link io.github.wasabithumb.yandisk4j.except.YanDiskCancelledException YanDiskCancelledException} at once;
+     * a queued transfer also {@link #isDone() completes} at once, while a running one completes when it has
+     * stopped, so nothing is written once {@link #block()} returns. A partial file left by a download to a file is
+     * kept, so that a later download can resume from it.
+     * @return True if the transfer was cancelled, false if it had already completed or been cancelled
+     * @since 0.5.0
+     */
+    boolean cancel();
+
     /**
      * The progress, measured as {@link #transferred()} over {@link #total()}.
      * @throws UnsupportedOperationException {@link #total() Total} is not set (set to {@code -1}), making
@@ -0,0 +1,58 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+
+/**
+ * Receives progress from a {@link TransferService.Job} while it runs, and lends it a buffer.
+ * @since 0.5.0
+ */
+@ApiStatus.NonExtendable
+public interface TransferContext {
+
+    /**
+     * Sets the number of bytes the transfer is expected to move, for jobs which only learn this once
+     * they have started.
+     * @param total Total number of bytes, or -1 if no expectation
+     */
+    void total(@Range(from = -1L, to = Long.MAX_VALUE) long total);
+
+    /**
+     * Reports that the given number of additional bytes have been transferred.
+     */
+    void advance(@Range(from = 0L, to = Long.MAX_VALUE) long bytes);
+
+    /**
+     * Provides an array-backed buffer of the {@link TransferService#bufferSize() size configured} for the
+     * service, taken from a shared pool. Every call returns the same buffer, which goes back to the pool
+     * once the job returns and must not be used afterward.
+     */
+    @NotNull ByteBuffer buffer();
+
+    /**
+     * Registers a resource to close if the transfer is {@link Transfer#cancel() cancelled} while the job runs,
+     * such as a stream being copied or a response being read. Closing it should make the job stop promptly, and
+     * must not block. If the transfer has already been cancelled, the resource is closed immediately.
+     */
+    void onCancel(@NotNull Closeable resource);
+
+    /**
+     * Returns true if the transfer has been {@link Transfer#cancel() cancelled}. Jobs which retry should check
+     * this before each attempt.
+     */
+    boolean isCancelled();
+
+    /**
+     * Provides an executor for work which the job splits off, such as the segments of a download. Tasks run on
+     * the threads of the service and count against its {@link TransferService#maxConcurrency() concurrency limit},
+     * queued ahead of transfers submitted after this one. Since a task may have to wait for running transfers to
+     * finish, the job must not block on a task which has not started; it should claim and run such work itself.
+     */
+    @NotNull Executor executor();
+
+}
@@ -0,0 +1,15 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+/**
+ * The priority of a transfer waiting for a {@link TransferService} to run it. Queued transfers
+ * with a higher priority start first; transfers of equal priority start in the order they were submitted.
+ * @since 0.5.0
+ */
+public enum TransferPriority {
+    /** For bulk work such as backups */
+    LOW,
+    /** The default priority */
+    NORMAL,
+    /** For transfers which someone is waiting on */
+    HIGH
+}
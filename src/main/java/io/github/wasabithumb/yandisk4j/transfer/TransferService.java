@@ -2,35 +2,202 @@ package io.github.wasabithumb.yandisk4j.transfer;
 
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
-import io.github.wasabithumb.yandisk4j.util.IDVendor;
+import io.github.wasabithumb.yandisk4j.except.YanDiskOperationException;
+import io.github.wasabithumb.yandisk4j.util.BufferPool;
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import io.github.wasabithumb.yandisk4j.util.StreamUtil;
+import io.github.wasabithumb.yandisk4j.util.VirtualThreads;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Range;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-@ApiStatus.Internal
+/**
+ * Runs asynchronous transfers on a bounded pool of threads. Transfers which cannot start immediately
+ * wait in a queue, ordered by {@link TransferPriority priority} and then by submission order.
+ * @since 0.5.0
+ */
 public class TransferService {
 
-    private final ExecutorService executor;
-    public TransferService(final @NotNull String descriptor) {
-        final IDVendor vendor = new IDVendor();
-        this.executor = Executors.newCachedThreadPool((Runnable r) -> new Runner(r, descriptor, vendor));
+    private static volatile TransferService DEFAULT = null;
+
+    /**
+     * Provides the service used by {@link io.github.wasabithumb.yandisk4j.node.accessor.NodeUploader NodeUploader}
+     * and {@link io.github.wasabithumb.yandisk4j.node.accessor.NodeDownloader NodeDownloader} when no other
+     * service is specified. Unless {@link #setDefaultService(TransferService) replaced}, this runs up to 8
+     * transfers at once.
+     */
+    public static @NotNull TransferService defaultService() {
+        TransferService ret = DEFAULT;
+        if (ret == null) {
+            synchronized (TransferService.class) {
+                ret = DEFAULT;
+                if (ret == null) DEFAULT = ret = builder().build();
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Replaces the {@link #defaultService() default service}. Transfers already submitted to the previous
+     * default service are not affected.
+     */
+    public static void setDefaultService(@NotNull TransferService service) {
+        synchronized (TransferService.class) {
+            DEFAULT = service;
+        }
+    }
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
     }
 
     //
 
-    private void submit(
-            @NotNull Transfer transfer,
+    private final int maxConcurrency;
+    private final BufferPool buffers;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence;
+    private final AtomicInteger active;
+    private TransferService(@NotNull String descriptor, int maxConcurrency, int bufferSize, boolean virtualThreads) {
+        final ThreadFactory threadFactory = virtualThreads ?
+                VirtualThreads.factory(descriptor) :
+                new NamedThreadFactory(descriptor, false);
+        this.maxConcurrency = maxConcurrency;
+        this.buffers = BufferPool.shared(bufferSize);
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency,
+                maxConcurrency,
+                30L,
+                TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                threadFactory
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+        this.sequence = new AtomicLong(0L);
+        this.active = new AtomicInteger(0);
+    }
+
+    /**
+     * Creates a new service with the default settings.
+     * @param descriptor Included in the names of the threads created by this service
+     */
+    @ApiStatus.Internal
+    public TransferService(@NotNull String descriptor) {
+        this(descriptor, Builder.DEFAULT_MAX_CONCURRENCY, BufferPool.DEFAULT_SIZE, VirtualThreads.isEnabled());
+    }
+
+    //
+
+    /**
+     * The maximum number of transfers which may run at once.
+     */
+    public int maxConcurrency() {
+        return this.maxConcurrency;
+    }
+
+    /**
+     * The size of the buffer lent to each running transfer.
+     * @see TransferContext#buffer()
+     */
+    public int bufferSize() {
+        return this.buffers.size();
+    }
+
+    /**
+     * The number of transfers which are currently running.
+     */
+    public int active() {
+        return this.active.get();
+    }
+
+    /**
+     * The number of transfers which have been submitted but have not yet started.
+     */
+    public int queued() {
+        int count = 0;
+        for (Runnable entry : this.executor.getQueue()) {
+            if (entry instanceof Task) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Submits a job to run once a thread is available.
+     * @param job The work of the transfer
+     * @param bytes Total number of bytes expected to transfer, or -1 if no expectation
+     * @param priority Decides the position of the job in the queue
+     * @return A read-only view of the transfer
+     */
+    public @NotNull Transfer submit(
+            @NotNull Job job,
+            @Range(from = -1L, to = Long.MAX_VALUE) long bytes,
+            @NotNull TransferPriority priority
+    ) {
+        final BasicTransfer transfer = new BasicTransfer(bytes);
+        final Task task = new Task(this, transfer, job, priority, this.sequence.getAndIncrement());
+        transfer.canceller(task::cancel);
+        this.executor.execute(task);
+        return Transfer.seal(transfer);
+    }
+
+    /**
+     * Provides an executor which runs tasks on the threads of this service, within its
+     * {@link #maxConcurrency() concurrency limit}. Tasks wait in the queue as transfers of the given priority would,
+     * and are not counted by {@link #active()} or {@link #queued()}. Since a task may have to wait for running
+     * transfers to finish, a caller must not block on a task which has not started.
+     * @see TransferContext#executor()
+     */
+    @ApiStatus.Internal
+    public @NotNull Executor executor(@NotNull TransferPriority priority) {
+        return (Runnable command) -> this.executor.execute(
+                new Subtask(priority, this.sequence.getAndIncrement(), command)
+        );
+    }
+
+    /**
+     * Submits a transfer which moves the content of an input stream to an output stream. If the transfer is
+     * {@link Transfer#cancel() cancelled}, both streams are closed from the cancelling thread.
+     * @param bytes Total number of bytes expected to transfer, or -1 if no expectation
+     * @param priority Decides the position of the transfer in the queue
+     * @return A read-only view of the transfer
+     */
+    public @NotNull Transfer submit(
             @NotNull Callable<InputStream> input,
-            @NotNull Callable<OutputStream> output
+            @NotNull Callable<OutputStream> output,
+            @Range(from = -1L, to = Long.MAX_VALUE) long bytes,
+            @NotNull TransferPriority priority
     ) {
-        this.executor.submit(new Task(transfer, input, output));
+        return this.submit((TransferContext context) -> {
+            try (InputStream is = input.call();
+                 OutputStream os = output.call()
+            ) {
+                context.onCancel(is);
+                context.onCancel(os);
+                StreamUtil.pipe(is, os, context.buffer(), context::advance);
+            } catch (IOException | YanDiskException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new AssertionError("Provider threw an illegal exception", e);
+            }
+        }, bytes, priority);
     }
 
     public @NotNull Transfer submit(
@@ -38,79 +205,272 @@ public class TransferService {
             @NotNull Callable<OutputStream> output,
             @Range(from = -1L, to = Long.MAX_VALUE) long bytes
     ) {
-        Transfer t = Transfer.create(bytes);
-        this.submit(t, input, output);
-        return Transfer.seal(t);
+        return this.submit(input, output, bytes, TransferPriority.NORMAL);
     }
 
     public @NotNull Transfer submit(
             @NotNull Callable<InputStream> input,
             @NotNull Callable<OutputStream> output
     ) {
-        Transfer t = Transfer.create();
-        this.submit(t, input, output);
-        return Transfer.seal(t);
+        return this.submit(input, output, -1L);
+    }
+
+    //
+
+    /**
+     * The work performed by a transfer once it starts.
+     */
+    @FunctionalInterface
+    public interface Job {
+
+        void run(@NotNull TransferContext context) throws IOException, YanDiskException;
+
     }
 
     //
 
-    private static class Runner extends Thread {
+    public static final class Builder {
 
-        private final IDVendor vendor;
-        private final int id;
-        Runner(@NotNull Runnable task, @NotNull String descriptor, @NotNull IDVendor vendor) {
-            super(task);
-            this.vendor = vendor;
-            this.id = vendor.next();
-            this.setName("YanDisk " + descriptor + " Thread #" + (this.id + 1));
+        static final int DEFAULT_MAX_CONCURRENCY = 8;
+
+        private String descriptor;
+        private int maxConcurrency;
+        private int bufferSize;
+        private boolean virtualThreads;
+        private Builder() {
+            this.descriptor = "Transfer";
+            this.maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+            this.bufferSize = BufferPool.DEFAULT_SIZE;
+            this.virtualThreads = VirtualThreads.isEnabled();
+        }
+
+        /**
+         * Sets the name included in the names of the threads created by the service. Default is {@code Transfer}.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder descriptor(@NotNull String descriptor) {
+            this.descriptor = descriptor;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of transfers which may run at once. Further transfers wait in a queue.
+         * Default is 8.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxConcurrency(@Range(from = 1L, to = Integer.MAX_VALUE) int maxConcurrency) {
+            if (maxConcurrency < 1)
+                throw new IllegalArgumentException("Max concurrency must be positive (got " + maxConcurrency + ")");
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffer through which each transfer reads. Larger buffers mean fewer, larger reads
+         * on fast links. Buffers are shared between all services with the same buffer size, and are reused
+         * by later transfers once a transfer ends. Default is 64 KiB.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder bufferSize(@Range(from = 1L, to = Integer.MAX_VALUE) int bufferSize) {
+            if (bufferSize < 1)
+                throw new IllegalArgumentException("Buffer size must be positive (got " + bufferSize + ")");
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets whether transfers run on virtual threads. Since virtual threads are cheap to block, this suits
+         * services with a high {@link #maxConcurrency(int) concurrency limit}. Requires Java 21 or newer.
+         * Default is false, unless the {@code yandisk4j.virtualThreads} system property is {@code true}.
+         * @throws UnsupportedOperationException Enabling virtual threads on a runtime older than Java 21
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder virtualThreads(boolean virtualThreads) throws UnsupportedOperationException {
+            if (virtualThreads && !VirtualThreads.isSupported())
+                throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull TransferService build() {
+            return new TransferService(this.descriptor, this.maxConcurrency, this.bufferSize, this.virtualThreads);
+        }
+
+    }
+
+    //
+
+    /**
+     * An entry in the queue of the service, ordered by priority and then by submission order.
+     */
+    private static abstract class Entry implements Runnable, Comparable<Entry> {
+
+        protected final TransferPriority priority;
+        protected final long sequence;
+        Entry(@NotNull TransferPriority priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(@NotNull Entry other) {
+            int cmp = other.priority.compareTo(this.priority);
+            if (cmp != 0) return cmp;
+            return Long.compare(this.sequence, other.sequence);
+        }
+
+    }
+
+    /**
+     * Runs a task for the {@link #executor(TransferPriority) executor} of the service.
+     */
+    private static final class Subtask extends Entry {
+
+        private final Runnable command;
+        Subtask(@NotNull TransferPriority priority, long sequence, @NotNull Runnable command) {
+            super(priority, sequence);
+            this.command = command;
         }
 
         @Override
         public void run() {
             try {
-                super.run();
-            } finally {
-                this.vendor.free(this.id);
+                this.command.run();
+            } catch (RuntimeException e) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
             }
         }
 
     }
 
-    //
+    private static final class Task extends Entry implements TransferContext {
 
-    private record Task(
-            @NotNull Transfer transfer,
-            @NotNull Callable<InputStream> input,
-            @NotNull Callable<OutputStream> output
-    ) implements Runnable {
+        private final TransferService service;
+        private final BasicTransfer transfer;
+        private final Job job;
+        private ByteBuffer buffer;
+        private final List<Closeable> hooks;
+        private Thread thread;
+        private volatile boolean cancelled;
+        Task(
+                @NotNull TransferService service,
+                @NotNull BasicTransfer transfer,
+                @NotNull Job job,
+                @NotNull TransferPriority priority,
+                long sequence
+        ) {
+            super(priority, sequence);
+            this.service = service;
+            this.transfer = transfer;
+            this.job = job;
+            this.buffer = null;
+            this.hooks = new ArrayList<>();
+            this.thread = null;
+            this.cancelled = false;
+        }
+
+        @Override
+        public void total(@Range(from = -1L, to = Long.MAX_VALUE) long total) {
+            this.transfer.total(total);
+        }
+
+        @Override
+        public void advance(@Range(from = 0L, to = Long.MAX_VALUE) long bytes) {
+            this.transfer.advance(bytes);
+        }
+
+        @Override
+        public @NotNull ByteBuffer buffer() {
+            ByteBuffer buffer = this.buffer;
+            if (buffer == null) this.buffer = buffer = this.service.buffers.acquire();
+            return buffer;
+        }
+
+        @Override
+        public void onCancel(@NotNull Closeable resource) {
+            synchronized (this) {
+                if (!this.cancelled) {
+                    this.hooks.add(resource);
+                    return;
+                }
+            }
+            closeQuietly(resource);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public @NotNull Executor executor() {
+            // Run ahead of transfers submitted after this one
+            return (Runnable command) -> this.service.executor.execute(
+                    new Subtask(this.priority, this.sequence, command)
+            );
+        }
+
+        /**
+         * Removes the task from the queue if it has not started, otherwise closes the resources registered by the
+         * job and interrupts the thread running it. The transfer completes once the job has returned, so that
+         * nothing is written after it is done.
+         */
+        void cancel() {
+            final List<Closeable> hooks;
+            synchronized (this) {
+                if (this.cancelled) return;
+                this.cancelled = true;
+                hooks = new ArrayList<>(this.hooks);
+                this.hooks.clear();
+            }
+            if (this.service.executor.remove(this)) this.transfer.update(-1L);
+            for (Closeable hook : hooks) closeQuietly(hook);
+            synchronized (this) {
+                // Only interrupt while the job is still running, so the interrupt cannot leak into the next task
+                if (this.thread != null) this.thread.interrupt();
+            }
+        }
+
+        private static void closeQuietly(@NotNull Closeable resource) {
+            try {
+                resource.close();
+            } catch (IOException | RuntimeException ignored) { }
+        }
 
         @Override
         public void run() {
+            synchronized (this) {
+                if (this.cancelled) {
+                    // Cancelled after leaving the queue, but before starting
+                    this.transfer.update(-1L);
+                    return;
+                }
+                this.thread = Thread.currentThread();
+            }
+            this.service.active.incrementAndGet();
             try {
-                this.run0();
+                this.job.run(this);
             } catch (YanDiskException e) {
-                this.transfer.raise(e);
+                if (!this.cancelled) this.transfer.raise(e);
             } catch (IOException e) {
-                this.transfer.raise(new YanDiskIOException("Broken pipe", e));
+                if (!this.cancelled) this.transfer.raise(new YanDiskIOException("Broken pipe", e));
+            } catch (RuntimeException e) {
+                if (!this.cancelled) this.transfer.raise(new YanDiskOperationException("Transfer job failed", e));
             } finally {
-                this.transfer.update(-1L);
-            }
-        }
-
-        private void run0() throws IOException {
-            try (InputStream is = this.input.call();
-                 OutputStream os = this.output.call()
-            ) {
-                byte[] buf = new byte[8192];
-                int read;
-                while ((read = is.read(buf, 0, 8192)) != -1) {
-                    os.write(buf, 0, read);
-                    this.transfer.update(read);
+                synchronized (this) {
+                    this.thread = null;
+                    this.hooks.clear();
                 }
-            } catch (IOException | YanDiskException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new AssertionError("Provider threw an illegal exception", e);
+                if (this.cancelled) Thread.interrupted();
+                final ByteBuffer buffer = this.buffer;
+                if (buffer != null) {
+                    this.buffer = null;
+                    this.service.buffers.release(buffer);
+                }
+                this.transfer.update(-1L);
+                this.service.active.decrementAndGet();
             }
         }
 
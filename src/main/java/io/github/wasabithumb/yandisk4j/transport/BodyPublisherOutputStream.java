@@ -0,0 +1,196 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link OutputStream} which publishes the data written to it as a request body. Writes block until the
+ * subscriber (the HTTP client) signals demand, so at most a few writes are ever held in memory.
+ */
+@ApiStatus.Internal
+final class BodyPublisherOutputStream extends OutputStream implements Flow.Publisher<ByteBuffer> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = this.lock.newCondition();
+    private Flow.Subscriber<? super ByteBuffer> subscriber = null;
+    private long demand = 0L;
+    private boolean closed = false;
+    private IOException failure = null;
+
+    //
+
+    @Override
+    public void subscribe(@NotNull Flow.Subscriber<? super ByteBuffer> subscriber) {
+        boolean complete;
+        this.lock.lock();
+        try {
+            if (this.subscriber != null) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) { }
+
+                    @Override
+                    public void cancel() { }
+                });
+                subscriber.onError(new IllegalStateException("Request body cannot be replayed"));
+                return;
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        subscriber.onSubscribe(new Subscription());
+
+        this.lock.lock();
+        try {
+            this.subscriber = subscriber;
+            complete = this.closed && this.failure == null;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (complete) subscriber.onComplete();
+    }
+
+    /**
+     * Aborts the stream, causing any pending or future writes to fail. Called when the exchange completes,
+     * so that writers are not left waiting on a subscriber that has gone away.
+     */
+    void terminate(@Nullable Throwable cause) {
+        this.lock.lock();
+        try {
+            if (this.failure != null) return;
+            if (cause == null) {
+                this.failure = new IOException("Server responded before the request body was written");
+            } else if (cause instanceof IOException io) {
+                this.failure = io;
+            } else {
+                this.failure = new IOException("Request failed", cause);
+            }
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Aborts the stream as with {@link #terminate(Throwable)}, and fails the request body unless it has already
+     * been completed.
+     */
+    void abort(@NotNull IOException cause) {
+        Flow.Subscriber<? super ByteBuffer> subscriber;
+        this.lock.lock();
+        try {
+            if (this.failure != null || this.closed) {
+                this.closed = true;
+                return;
+            }
+            this.failure = cause;
+            this.closed = true;
+            subscriber = this.subscriber;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (subscriber != null) subscriber.onError(cause);
+    }
+
+    private @NotNull Flow.Subscriber<? super ByteBuffer> awaitDemand() throws IOException {
+        this.lock.lock();
+        try {
+            while (true) {
+                if (this.closed) throw new IOException("Stream closed");
+                if (this.failure != null) throw new IOException(this.failure.getMessage(), this.failure);
+                if (this.subscriber != null && this.demand > 0L) {
+                    this.demand--;
+                    return this.subscriber;
+                }
+                try {
+                    this.changed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while writing request body");
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) return;
+        this.awaitDemand().onNext(ByteBuffer.wrap(Arrays.copyOfRange(b, off, off + len)));
+    }
+
+    /**
+     * Publishes the remaining content of the buffer as-is, without copying it.
+     * The buffer must not be modified afterward.
+     */
+    void publish(@NotNull ByteBuffer buffer) throws IOException {
+        if (!buffer.hasRemaining()) return;
+        this.awaitDemand().onNext(buffer.slice());
+        buffer.position(buffer.limit());
+    }
+
+    @Override
+    public void close() {
+        Flow.Subscriber<? super ByteBuffer> subscriber;
+        this.lock.lock();
+        try {
+            if (this.closed) return;
+            this.closed = true;
+            if (this.failure != null) return;
+            subscriber = this.subscriber;
+        } finally {
+            this.lock.unlock();
+        }
+        if (subscriber != null) subscriber.onComplete();
+    }
+
+    //
+
+    private final class Subscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            final BodyPublisherOutputStream self = BodyPublisherOutputStream.this;
+            if (n <= 0L) {
+                self.terminate(new IllegalArgumentException("Non-positive demand: " + n));
+                return;
+            }
+            self.lock.lock();
+            try {
+                long next = self.demand + n;
+                self.demand = next < 0L ? Long.MAX_VALUE : next;
+                self.changed.signalAll();
+            } finally {
+                self.lock.unlock();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            BodyPublisherOutputStream.this.terminate(new IOException("Request body was cancelled"));
+        }
+
+    }
+
+}
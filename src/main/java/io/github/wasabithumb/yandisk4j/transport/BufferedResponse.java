@@ -0,0 +1,45 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+
+/**
+ * A {@link TransportResponse} whose body has been read into memory.
+ */
+@ApiStatus.Internal
+record BufferedResponse(
+        int status,
+        @NotNull Function<String, String> headers,
+        byte @NotNull [] data
+) implements TransportResponse {
+
+    static @NotNull BufferedResponse of(@NotNull TransportResponse response) throws IOException {
+        final byte[] data;
+        try (InputStream is = response.body()) {
+            data = is.readAllBytes();
+        }
+        return new BufferedResponse(response.status(), response::header, data);
+    }
+
+    //
+
+    @Override
+    public @Nullable String header(@NotNull String name) {
+        return this.headers.apply(name);
+    }
+
+    @Override
+    public @NotNull InputStream body() {
+        return new ByteArrayInputStream(this.data);
+    }
+
+    @Override
+    public void close() { }
+
+}
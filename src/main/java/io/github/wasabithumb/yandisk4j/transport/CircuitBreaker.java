@@ -0,0 +1,254 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Stops a transport created with {@link Transport#withCircuitBreaker(CircuitBreaker)} from sending requests to
+ *     the Disk API while it is failing, so that callers fail immediately with a {@link CircuitOpenException}
+ *     instead of waiting for requests which are unlikely to succeed.
+ * </p>
+ * <ul>
+ *     <li>
+ *         While {@link State#CLOSED closed}, the outcome of the last {@link Builder#window(int) window} calls
+ *         is recorded. A call fails if it throws an {@link java.io.IOException IOException} or receives a status
+ *         of 408 or 500 and above. Once at least {@link Builder#minimumCalls(int) minimumCalls} have been made
+ *         and the share of failures reaches the {@link Builder#threshold(double) threshold}, the breaker opens.
+ *     </li>
+ *     <li>
+ *         While {@link State#OPEN open}, every call is refused. After the
+ *         {@link Builder#openDuration(long) open duration}, the breaker becomes half-open.
+ *     </li>
+ *     <li>
+ *         While {@link State#HALF_OPEN half-open}, up to {@link Builder#probes(int) probes} calls are let through.
+ *         If they all succeed, the breaker closes; if any fails, it opens again.
+ *     </li>
+ * </ul>
+ * <p>
+ *     Requests made to other hosts, such as the upload and download links themselves, are not affected.
+ *     A breaker holds its state, so wrapping several transports with the same breaker makes them share it.
+ *     This class is thread-safe.
+ * </p>
+ * @since 0.5.0
+ */
+public final class CircuitBreaker {
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a new breaker with the default settings: opens when half of the last 20 calls failed (with at
+     * least 10 calls made), stays open for 30 seconds, and then lets 3 probes through.
+     */
+    @Contract("-> new")
+    public static @NotNull CircuitBreaker create() {
+        return builder().build();
+    }
+
+    //
+
+    private final double threshold;
+    private final int minimumCalls;
+    private final long openDuration;
+    private final int probes;
+    private final boolean[] outcomes;
+    private State state;
+    private long generation;
+    private int calls;
+    private int failures;
+    private int cursor;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+    private CircuitBreaker(@NotNull Builder builder) {
+        this.threshold = builder.threshold;
+        this.minimumCalls = builder.minimumCalls;
+        this.openDuration = TimeUnit.MILLISECONDS.toNanos(builder.openDuration);
+        this.probes = builder.probes;
+        this.outcomes = new boolean[builder.window];
+        this.state = State.CLOSED;
+        this.generation = 0L;
+    }
+
+    /**
+     * The current state of the breaker. An open breaker whose open duration has elapsed is reported as half-open.
+     */
+    public synchronized @NotNull State state() {
+        if (this.state == State.OPEN && System.nanoTime() - this.openedAt >= this.openDuration) return State.HALF_OPEN;
+        return this.state;
+    }
+
+    /**
+     * Takes permission to make a call, returning a ticket which must be passed to {@link #record(long, boolean)}
+     * or {@link #release(long)} once the call completes.
+     * @throws CircuitOpenException The breaker is open, or enough probes are already in flight.
+     */
+    synchronized long acquire() throws CircuitOpenException {
+        if (this.state == State.OPEN) {
+            final long elapsed = System.nanoTime() - this.openedAt;
+            if (elapsed < this.openDuration) {
+                throw new CircuitOpenException(
+                        "Circuit breaker is open",
+                        TimeUnit.NANOSECONDS.toMillis(this.openDuration - elapsed)
+                );
+            }
+            this.transition(State.HALF_OPEN);
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.probesStarted >= this.probes)
+                throw new CircuitOpenException("Circuit breaker is half-open and awaiting probes", 0L);
+            this.probesStarted++;
+        }
+        return this.generation;
+    }
+
+    /**
+     * Records the outcome of a call. Outcomes of calls which began before the last change of state are ignored.
+     */
+    synchronized void record(long ticket, boolean success) {
+        if (ticket != this.generation) return;
+        switch (this.state) {
+            case CLOSED -> {
+                if (this.calls == this.outcomes.length) {
+                    if (!this.outcomes[this.cursor]) this.failures--;
+                } else {
+                    this.calls++;
+                }
+                this.outcomes[this.cursor] = success;
+                if (!success) this.failures++;
+                this.cursor = (this.cursor + 1) % this.outcomes.length;
+
+                if (this.calls >= this.minimumCalls && this.failures >= this.threshold * this.calls)
+                    this.transition(State.OPEN);
+            }
+            case HALF_OPEN -> {
+                if (!success) {
+                    this.transition(State.OPEN);
+                } else if (++this.probesSucceeded >= this.probes) {
+                    this.transition(State.CLOSED);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends a call without recording an outcome, for instance because it was interrupted.
+     */
+    synchronized void release(long ticket) {
+        if (ticket != this.generation) return;
+        if (this.state == State.HALF_OPEN) this.probesStarted--;
+    }
+
+    private void transition(@NotNull State state) {
+        this.state = state;
+        this.generation++;
+        this.probesStarted = 0;
+        this.probesSucceeded = 0;
+        switch (state) {
+            case CLOSED -> {
+                this.calls = 0;
+                this.failures = 0;
+                this.cursor = 0;
+            }
+            case OPEN -> this.openedAt = System.nanoTime();
+        }
+    }
+
+    //
+
+    public enum State {
+        /** Calls are sent and their outcomes recorded. */
+        CLOSED,
+        /** Calls are refused. */
+        OPEN,
+        /** A limited number of calls are sent to test whether the server has recovered. */
+        HALF_OPEN
+    }
+
+    public static final class Builder {
+
+        private double threshold;
+        private int minimumCalls;
+        private int window;
+        private long openDuration;
+        private int probes;
+        private Builder() {
+            this.threshold = 0.5d;
+            this.minimumCalls = 10;
+            this.window = 20;
+            this.openDuration = 30000L;
+            this.probes = 3;
+        }
+
+        /**
+         * Sets the share of failed calls, from 0 (exclusive) to 1, at which the breaker opens. Default is 0.5.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder threshold(double threshold) {
+            if (!(threshold > 0d && threshold <= 1d))
+                throw new IllegalArgumentException("Threshold must be greater than 0 and at most 1 (got " + threshold + ")");
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the number of calls which must be recorded before the breaker may open. Default is 10.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder minimumCalls(@Range(from = 1L, to = Integer.MAX_VALUE) int minimumCalls) {
+            if (minimumCalls < 1)
+                throw new IllegalArgumentException("Minimum calls must be positive (got " + minimumCalls + ")");
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets the number of most recent calls over which the failure rate is measured. Default is 20.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder window(@Range(from = 1L, to = Integer.MAX_VALUE) int window) {
+            if (window < 1)
+                throw new IllegalArgumentException("Window must be positive (got " + window + ")");
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets how long the breaker stays open before letting probes through, in milliseconds. Default is 30000.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder openDuration(@Range(from = 0L, to = Long.MAX_VALUE) long openDuration) {
+            if (openDuration < 0L)
+                throw new IllegalArgumentException("Open duration may not be negative (got " + openDuration + ")");
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * Sets the number of calls let through while half-open, all of which must succeed for the breaker to
+         * close. Default is 3.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder probes(@Range(from = 1L, to = Integer.MAX_VALUE) int probes) {
+            if (probes < 1)
+                throw new IllegalArgumentException("Probes must be positive (got " + probes + ")");
+            this.probes = probes;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull CircuitBreaker build() {
+            if (this.minimumCalls > this.window)
+                throw new IllegalArgumentException("Minimum calls may not exceed window (got " + this.minimumCalls + " > " + this.window + ")");
+            return new CircuitBreaker(this);
+        }
+
+    }
+
+}
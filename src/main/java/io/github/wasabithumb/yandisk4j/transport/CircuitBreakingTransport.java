@@ -0,0 +1,100 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A {@link Transport} which refuses to send requests to the Disk API while a {@link CircuitBreaker} is open.
+ * Uploads are passed through as-is, since they are never sent to the Disk API itself.
+ * @see Transport#withCircuitBreaker(CircuitBreaker)
+ */
+@ApiStatus.Internal
+final class CircuitBreakingTransport implements Transport {
+
+    private static boolean isFailure(int status) {
+        return status >= 500 || status == 408;
+    }
+
+    /**
+     * Returns true if the exception reflects on the health of the server, rather than on the caller.
+     */
+    private static boolean isCounted(@NotNull Throwable t) {
+        if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException)) return false;
+        return !(t instanceof CancellationException);
+    }
+
+    //
+
+    private final Transport backing;
+    private final CircuitBreaker breaker;
+    CircuitBreakingTransport(@NotNull Transport backing, @NotNull CircuitBreaker breaker) {
+        this.backing = backing;
+        this.breaker = breaker;
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        if (RateLimiter.Endpoint.of(request.uri()) == null) return this.backing.send(request);
+
+        final long ticket = this.breaker.acquire();
+        final TransportResponse response;
+        try {
+            response = this.backing.send(request);
+        } catch (IOException | RuntimeException e) {
+            if (isCounted(e)) {
+                this.breaker.record(ticket, false);
+            } else {
+                this.breaker.release(ticket);
+            }
+            throw e;
+        }
+        this.breaker.record(ticket, !isFailure(response.status()));
+        return response;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request) {
+        if (RateLimiter.Endpoint.of(request.uri()) == null) return this.backing.sendAsync(request);
+
+        final long ticket;
+        try {
+            ticket = this.breaker.acquire();
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return this.backing.sendAsync(request).whenComplete((TransportResponse response, Throwable t) -> {
+            if (t == null) {
+                this.breaker.record(ticket, !isFailure(response.status()));
+                return;
+            }
+            if (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+            if (isCounted(t)) {
+                this.breaker.record(ticket, false);
+            } else {
+                this.breaker.release(ticket);
+            }
+        });
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException {
+        return this.backing.upload(request, length);
+    }
+
+    @Override
+    public boolean isRetrying() {
+        return this.backing.isRetrying();
+    }
+
+}
@@ -0,0 +1,29 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a transport created with {@link Transport#withCircuitBreaker(CircuitBreaker)} when a request is refused
+ * without being sent, because recent requests have failed too often.
+ * @since 0.5.0
+ */
+public final class CircuitOpenException extends IOException {
+
+    private final long remaining;
+    CircuitOpenException(@NotNull String message, long remaining) {
+        super(message);
+        this.remaining = remaining;
+    }
+
+    /**
+     * The time until the circuit breaker will let a request through to test the server, in milliseconds.
+     * 0 if test requests are already in flight.
+     */
+    public @Range(from = 0L, to = Long.MAX_VALUE) long remaining() {
+        return this.remaining;
+    }
+
+}
@@ -0,0 +1,42 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+
+/**
+ * Thrown by a transport when the {@link TransportRequest#deadline() deadline} of a request passes before the
+ * exchange completes.
+ * @since 0.5.0
+ */
+public final class DeadlineExceededException extends InterruptedIOException {
+
+    /**
+     * Throws if the deadline of the given request has passed.
+     */
+    static void check(@NotNull TransportRequest request) throws DeadlineExceededException {
+        if (request.remaining() <= 0L) throw new DeadlineExceededException(request);
+    }
+
+    /**
+     * Returns the exception to raise for a timeout, which is a {@link DeadlineExceededException} if the
+     * timeout was caused by the deadline of the request passing.
+     */
+    static @NotNull IOException translate(@NotNull TransportRequest request, @NotNull IOException e) {
+        if (!(e instanceof SocketTimeoutException || e instanceof HttpTimeoutException)) return e;
+        if (request.remaining() > 0L) return e;
+        DeadlineExceededException ret = new DeadlineExceededException(request);
+        ret.initCause(e);
+        return ret;
+    }
+
+    //
+
+    public DeadlineExceededException(@NotNull TransportRequest request) {
+        super("Deadline exceeded (" + request + ")");
+    }
+
+}
@@ -0,0 +1,105 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A FIFO semaphore which can be acquired without blocking a thread.
+ */
+@ApiStatus.Internal
+final class ExchangeLimiter {
+
+    private final int max;
+    private final Deque<CompletableFuture<Permit>> waiters;
+    private int active;
+    ExchangeLimiter(int max) {
+        this.max = max;
+        this.waiters = new ArrayDeque<>();
+        this.active = 0;
+    }
+
+    //
+
+    @NotNull CompletableFuture<Permit> acquireAsync() {
+        synchronized (this) {
+            if (this.active < this.max) {
+                this.active++;
+                return CompletableFuture.completedFuture(new Permit(this));
+            }
+            CompletableFuture<Permit> ret = new CompletableFuture<>();
+            this.waiters.add(ret);
+            return ret;
+        }
+    }
+
+    @NotNull Permit acquire() throws InterruptedIOException {
+        return Objects.requireNonNull(this.acquire(Long.MAX_VALUE));
+    }
+
+    /**
+     * Waits up to the given number of milliseconds for a permit, returning null if none was granted in time.
+     */
+    @Nullable Permit acquire(long timeout) throws InterruptedIOException {
+        final CompletableFuture<Permit> future = this.acquireAsync();
+        try {
+            if (timeout == Long.MAX_VALUE) return future.get();
+            return future.get(Math.max(timeout, 0L), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (!future.cancel(false)) return future.join();
+            return null;
+        } catch (InterruptedException e) {
+            if (!future.cancel(false)) future.join().release();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a connection");
+        } catch (ExecutionException e) {
+            throw new AssertionError("Permit future completed exceptionally", e);
+        }
+    }
+
+    private void release() {
+        CompletableFuture<Permit> next;
+        while (true) {
+            synchronized (this) {
+                next = this.waiters.poll();
+                if (next == null) {
+                    this.active--;
+                    return;
+                }
+            }
+            // Handoff: the permit passes directly to the next waiter, unless it gave up waiting
+            if (next.complete(new Permit(this))) return;
+        }
+    }
+
+    //
+
+    static final class Permit {
+
+        static final Permit NONE = new Permit(null);
+
+        private final ExchangeLimiter limiter;
+        private final AtomicBoolean released;
+        Permit(ExchangeLimiter limiter) {
+            this.limiter = limiter;
+            this.released = new AtomicBoolean(false);
+        }
+
+        void release() {
+            if (this.limiter != null && this.released.compareAndSet(false, true))
+                this.limiter.release();
+        }
+
+    }
+
+}
@@ -0,0 +1,437 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.transport.ExchangeLimiter.Permit;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * <p>
+ *     A {@link Transport} backed by a shared {@link HttpClient}. Connections are pooled by the client and reused
+ *     between requests, avoiding a new TLS handshake for each call. HTTP/2 is negotiated when the server
+ *     supports it, allowing concurrent requests to be multiplexed over a single connection.
+ * </p>
+ * <p>
+ *     The number of exchanges in flight at once is bounded by {@link Builder#maxConcurrency(int)}. An exchange
+ *     holds its permit until its {@link TransportResponse} is closed or its body is read to the end.
+ * </p>
+ * <p>
+ *     Requests whose response, or any part of its body, does not arrive within the
+ *     {@link Builder#readTimeout(long) read timeout} or by their {@link TransportRequest#deadline() deadline} fail
+ *     with an {@link java.net.http.HttpTimeoutException} or a {@link DeadlineExceededException} respectively.
+ * </p>
+ * @see Transport#defaultTransport()
+ * @see #builder()
+ * @since 0.5.0
+ */
+public final class HttpClientTransport implements Transport {
+
+    static final HttpClientTransport DEFAULT = builder().build();
+
+    /**
+     * Creates a new {@link Builder}.
+     */
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    //
+
+    private final HttpClient client;
+    private final ExchangeLimiter limiter;
+    private final long readTimeout;
+    private HttpClientTransport(@NotNull HttpClient client, int maxConcurrency, long readTimeout) {
+        this.client = client;
+        this.limiter = maxConcurrency > 0 ? new ExchangeLimiter(maxConcurrency) : null;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * The backing client.
+     */
+    public @NotNull HttpClient client() {
+        return this.client;
+    }
+
+    //
+
+    /**
+     * Builds the request to send to the client.
+     * @param timeout Time to wait for the response, in milliseconds. 0 for no limit.
+     */
+    private @NotNull HttpRequest buildRequest(
+            @NotNull TransportRequest request,
+            @NotNull HttpRequest.BodyPublisher publisher,
+            long timeout
+    ) throws DeadlineExceededException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+                .method(request.method(), publisher);
+        for (Map.Entry<String, String> header : request.headers().entrySet())
+            builder.header(header.getKey(), header.getValue());
+
+        final long remaining = request.remaining();
+        if (remaining <= 0L) throw new DeadlineExceededException(request);
+        if (timeout == 0L || remaining < timeout) timeout = remaining;
+        if (timeout != Long.MAX_VALUE) builder.timeout(Duration.ofMillis(timeout));
+        return builder.build();
+    }
+
+    private @NotNull Permit acquire(@NotNull TransportRequest request) throws InterruptedIOException {
+        if (this.limiter == null) return Permit.NONE;
+        final Permit ret = this.limiter.acquire(request.remaining());
+        if (ret == null) throw new DeadlineExceededException(request);
+        return ret;
+    }
+
+    private @NotNull CompletableFuture<Permit> acquireAsync() {
+        if (this.limiter == null) return CompletableFuture.completedFuture(Permit.NONE);
+        return this.limiter.acquireAsync();
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        final byte[] body = request.body();
+        final Permit permit = this.acquire(request);
+        try {
+            final HttpRequest httpRequest = this.buildRequest(
+                    request,
+                    body == null ?
+                            HttpRequest.BodyPublishers.noBody() :
+                            HttpRequest.BodyPublishers.ofByteArray(body),
+                    this.readTimeout
+            );
+            return new Response(
+                    this.client.send(
+                            httpRequest,
+                            TimedBodySubscriber.wrap(HttpResponse.BodyHandlers.ofInputStream(), request, this.readTimeout)
+                    ),
+                    permit
+            );
+        } catch (InterruptedException e) {
+            permit.release();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response");
+        } catch (IOException e) {
+            permit.release();
+            throw DeadlineExceededException.translate(request, e);
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request) {
+        final byte[] body = request.body();
+        return this.acquireAsync().thenCompose((Permit permit) -> {
+            CompletableFuture<HttpResponse<byte[]>> future;
+            try {
+                final HttpRequest httpRequest = this.buildRequest(
+                        request,
+                        body == null ?
+                                HttpRequest.BodyPublishers.noBody() :
+                                HttpRequest.BodyPublishers.ofByteArray(body),
+                        this.readTimeout
+                );
+                future = this.client.sendAsync(
+                        httpRequest,
+                        TimedBodySubscriber.wrap(HttpResponse.BodyHandlers.ofByteArray(), request, this.readTimeout)
+                );
+            } catch (DeadlineExceededException e) {
+                permit.release();
+                throw new CompletionException(e);
+            } catch (RuntimeException e) {
+                permit.release();
+                throw e;
+            }
+            return future
+                    .whenComplete((HttpResponse<byte[]> r, Throwable t) -> permit.release())
+                    .handle((HttpResponse<byte[]> r, Throwable t) -> {
+                        if (t == null) return r;
+                        if (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+                        if (t instanceof IOException e) t = DeadlineExceededException.translate(request, e);
+                        throw new CompletionException(t);
+                    })
+                    .thenApply((HttpResponse<byte[]> r) -> new BufferedResponse(
+                            r.statusCode(),
+                            (String name) -> r.headers().firstValue(name).orElse(null),
+                            r.body()
+                    ));
+        });
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException {
+        final BodyPublisherOutputStream os = new BodyPublisherOutputStream();
+        final HttpRequest.BodyPublisher publisher;
+        if (length == -1L) {
+            publisher = HttpRequest.BodyPublishers.fromPublisher(os);
+        } else if (length == 0L) {
+            publisher = HttpRequest.BodyPublishers.noBody();
+        } else {
+            publisher = HttpRequest.BodyPublishers.fromPublisher(os, length);
+        }
+        final HttpRequest httpRequest = this.buildRequest(request, publisher, 0L);
+
+        final Permit permit = this.acquire(request);
+        final CompletableFuture<HttpResponse<InputStream>> future;
+        try {
+            future = this.client.sendAsync(
+                    httpRequest,
+                    TimedBodySubscriber.wrap(HttpResponse.BodyHandlers.ofInputStream(), request, this.readTimeout)
+            );
+        } catch (RuntimeException e) {
+            permit.release();
+            throw e;
+        }
+        future.whenComplete((HttpResponse<InputStream> r, Throwable t) -> os.terminate(t));
+        return new Upload(os, future, permit, request, this.readTimeout);
+    }
+
+    //
+
+    public static final class Builder {
+
+        private HttpClient client;
+        private int maxConcurrency;
+        private long connectTimeout;
+        private long readTimeout;
+        private Builder() {
+            this.client = null;
+            this.maxConcurrency = 64;
+            this.connectTimeout = 10000L;
+            this.readTimeout = 30000L;
+        }
+
+        /**
+         * Sets the client to use. By default, a new client is created which prefers HTTP/2, follows redirects
+         * and applies the {@link #connectTimeout(long) connect timeout}.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder client(@Nullable HttpClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of exchanges which may be in flight at once. Further requests wait for
+         * an exchange to complete. A value of 0 removes the limit. Default is 64.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxConcurrency(@Range(from = 0L, to = Integer.MAX_VALUE) int maxConcurrency) {
+            if (maxConcurrency < 0)
+                throw new IllegalArgumentException("Max concurrency may not be negative (got " + maxConcurrency + ")");
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for a connection to be established, in milliseconds. A value of 0 removes the
+         * limit. Only applies to the default client; see {@link #client(HttpClient)}. Default is 10000.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder connectTimeout(@Range(from = 0L, to = Long.MAX_VALUE) long connectTimeout) {
+            if (connectTimeout < 0L)
+                throw new IllegalArgumentException("Connect timeout may not be negative (got " + connectTimeout + ")");
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the time to wait for the response to a request, and for each part of the response body once
+         * it has been asked for, in milliseconds. For uploads, waiting for the response starts once the body
+         * has been sent. A value of 0 removes the limit. Default is 30000.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder readTimeout(@Range(from = 0L, to = Long.MAX_VALUE) long readTimeout) {
+            if (readTimeout < 0L)
+                throw new IllegalArgumentException("Read timeout may not be negative (got " + readTimeout + ")");
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull HttpClientTransport build() {
+            HttpClient client = this.client;
+            if (client == null) {
+                HttpClient.Builder builder = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .followRedirects(HttpClient.Redirect.NORMAL);
+                if (this.connectTimeout != 0L) builder.connectTimeout(Duration.ofMillis(this.connectTimeout));
+                client = builder.build();
+            }
+            return new HttpClientTransport(client, this.maxConcurrency, this.readTimeout);
+        }
+
+    }
+
+    //
+
+    private static final class Upload implements TransportUpload {
+
+        private final BodyPublisherOutputStream body;
+        private final CompletableFuture<HttpResponse<InputStream>> future;
+        private final Permit permit;
+        private final TransportRequest request;
+        private final long readTimeout;
+        Upload(
+                @NotNull BodyPublisherOutputStream body,
+                @NotNull CompletableFuture<HttpResponse<InputStream>> future,
+                @NotNull Permit permit,
+                @NotNull TransportRequest request,
+                long readTimeout
+        ) {
+            this.body = body;
+            this.future = future;
+            this.permit = permit;
+            this.request = request;
+            this.readTimeout = readTimeout;
+        }
+
+        @Override
+        public @NotNull OutputStream body() {
+            return this.body;
+        }
+
+        @Override
+        public void write(@NotNull ByteBuffer buffer) throws IOException {
+            this.body.publish(buffer);
+        }
+
+        @Override
+        public void abort() {
+            this.body.abort(new IOException("Upload was aborted"));
+            this.future.cancel(true);
+            this.permit.release();
+        }
+
+        @Override
+        public @NotNull TransportResponse response() throws IOException {
+            this.body.close();
+            long timeout = this.request.remaining();
+            if (this.readTimeout != 0L && this.readTimeout < timeout) timeout = this.readTimeout;
+            try {
+                if (timeout == Long.MAX_VALUE) return new Response(this.future.get(), this.permit);
+                return new Response(this.future.get(Math.max(timeout, 0L), TimeUnit.MILLISECONDS), this.permit);
+            } catch (TimeoutException e) {
+                this.abort();
+                if (this.request.remaining() <= 0L) throw new DeadlineExceededException(this.request);
+                throw new HttpTimeoutException("Timed out waiting for response to upload");
+            } catch (CancellationException e) {
+                this.permit.release();
+                throw new IOException("Upload was aborted", e);
+            } catch (InterruptedException e) {
+                this.future.cancel(true);
+                this.permit.release();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for response");
+            } catch (ExecutionException e) {
+                this.permit.release();
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) throw new IOException(io.getMessage(), io);
+                throw new IOException("Request failed", cause);
+            }
+        }
+
+    }
+
+    private static final class Response implements TransportResponse {
+
+        /**
+         * Returns the timeout raised by a {@link TimedBodySubscriber}, which the client wraps in another
+         * exception when reading from the body stream.
+         */
+        private static @NotNull IOException unwrapTimeout(@NotNull IOException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof HttpTimeoutException timeout) return timeout;
+            if (cause instanceof DeadlineExceededException deadline) return deadline;
+            return e;
+        }
+
+        private final HttpResponse<InputStream> response;
+        private final InputStream body;
+        Response(@NotNull HttpResponse<InputStream> response, @NotNull Permit permit) {
+            this.response = response;
+            this.body = new FilterInputStream(response.body()) {
+                @Override
+                public int read() throws IOException {
+                    final int ret;
+                    try {
+                        ret = super.read();
+                    } catch (IOException e) {
+                        throw unwrapTimeout(e);
+                    }
+                    if (ret == -1) permit.release();
+                    return ret;
+                }
+
+                @Override
+                public int read(byte @NotNull [] b, int off, int len) throws IOException {
+                    final int ret;
+                    try {
+                        ret = super.read(b, off, len);
+                    } catch (IOException e) {
+                        throw unwrapTimeout(e);
+                    }
+                    if (ret == -1) permit.release();
+                    return ret;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        permit.release();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public int status() {
+            return this.response.statusCode();
+        }
+
+        @Override
+        public @Nullable String header(@NotNull String name) {
+            return this.response.headers().firstValue(name).orElse(null);
+        }
+
+        @Override
+        public @NotNull InputStream body() {
+            return this.body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.body.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,81 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Transport} which paces the requests made by another transport according to a {@link RateLimiter}.
+ * Uploads are passed through as-is, since they are never sent to the Disk API itself.
+ * @see Transport#withRateLimit(RateLimiter)
+ */
+@ApiStatus.Internal
+final class RateLimitedTransport implements Transport {
+
+    private final Transport backing;
+    private final RateLimiter limiter;
+    RateLimitedTransport(@NotNull Transport backing, @NotNull RateLimiter limiter) {
+        this.backing = backing;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        final long wait = this.limiter.reserve(request);
+        if (wait > 0L) {
+            if (TimeUnit.NANOSECONDS.toMillis(wait) >= request.remaining()) throw new DeadlineExceededException(request);
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit");
+            }
+        }
+        final long sentAt = System.nanoTime();
+        final TransportResponse response = this.backing.send(request);
+        this.limiter.report(request, response, sentAt);
+        return response;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request) {
+        final long wait = this.limiter.reserve(request);
+        final CompletableFuture<TransportResponse> future;
+        if (wait > 0L && TimeUnit.NANOSECONDS.toMillis(wait) >= request.remaining()) {
+            future = CompletableFuture.failedFuture(new DeadlineExceededException(request));
+        } else if (wait > 0L) {
+            future = CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS))
+                    .thenCompose((Object ignored) -> this.sendAndReport(request));
+        } else {
+            future = this.sendAndReport(request);
+        }
+        return future;
+    }
+
+    private @NotNull CompletableFuture<TransportResponse> sendAndReport(@NotNull TransportRequest request) {
+        final long sentAt = System.nanoTime();
+        return this.backing.sendAsync(request).thenApply((TransportResponse response) -> {
+            this.limiter.report(request, response, sentAt);
+            return response;
+        });
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException {
+        return this.backing.upload(request, length);
+    }
+
+    @Override
+    public boolean isRetrying() {
+        return this.backing.isRetrying();
+    }
+
+}
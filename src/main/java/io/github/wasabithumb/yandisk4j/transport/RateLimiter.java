@@ -0,0 +1,196 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ *     Limits the rate of requests made to the Disk API by a transport created with
+ *     {@link Transport#withRateLimit(RateLimiter)}. Limits are token buckets, and may be set for all API calls
+ *     and for each {@link Endpoint class of endpoint}; a call waits until every bucket that applies to it has a
+ *     token. Requests made to other hosts, such as the upload and download links themselves, are not limited.
+ * </p>
+ * <p>
+ *     When the API responds with {@code 429 Too Many Requests}, the buckets that applied to the call halve their
+ *     rate and pause for the duration of any {@code Retry-After}. The rate then grows back to its limit over the
+ *     {@link Builder#recovery(long) recovery period}. A 429 for a request sent before the rate was last lowered
+ *     only pauses, so a burst of rejections for requests in flight together halves the rate once.
+ * </p>
+ * <p>
+ *     A limiter holds the state of its buckets, so wrapping several transports with the same limiter makes them
+ *     share its limits. This class is thread-safe.
+ * </p>
+ * @since 0.5.0
+ */
+public final class RateLimiter {
+
+    private static final String API_HOST = "cloud-api.yandex.net";
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    //
+
+    private final TokenBucket all;
+    private final Map<Endpoint, TokenBucket> endpoints;
+    private RateLimiter(@NotNull Builder builder) {
+        this.all = builder.all == null ? null : builder.all.create(builder.recovery);
+        final Map<Endpoint, TokenBucket> endpoints = new EnumMap<>(Endpoint.class);
+        for (Map.Entry<Endpoint, Limit> entry : builder.endpoints.entrySet())
+            endpoints.put(entry.getKey(), entry.getValue().create(builder.recovery));
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * The number of requests currently allowed per second to the given class of endpoint, taking into account
+     * any recent throttling. Returns {@link Double#POSITIVE_INFINITY} if the endpoint is not limited.
+     */
+    public double rate(@NotNull Endpoint endpoint) {
+        double ret = Double.POSITIVE_INFINITY;
+        if (this.all != null) ret = this.all.rate();
+        final TokenBucket bucket = this.endpoints.get(endpoint);
+        if (bucket != null) ret = Math.min(ret, bucket.rate());
+        return ret;
+    }
+
+    /**
+     * Takes a permit to send the given request, returning the number of nanoseconds to wait before sending it.
+     */
+    long reserve(@NotNull TransportRequest request) {
+        final Endpoint endpoint = Endpoint.of(request.uri());
+        if (endpoint == null) return 0L;
+
+        long wait = 0L;
+        if (this.all != null) wait = this.all.reserve();
+        final TokenBucket bucket = this.endpoints.get(endpoint);
+        if (bucket != null) wait = Math.max(wait, bucket.reserve());
+        return wait;
+    }
+
+    /**
+     * Adapts to the response received for the given request.
+     * @param sentAt {@link System#nanoTime()} at which the request was sent
+     */
+    void report(@NotNull TransportRequest request, @NotNull TransportResponse response, long sentAt) {
+        if (response.status() != 429) return;
+        final Endpoint endpoint = Endpoint.of(request.uri());
+        if (endpoint == null) return;
+
+        final long pause = TimeUnit.MILLISECONDS.toNanos(Math.max(RetryingTransport.retryAfter(response), 0L));
+        if (this.all != null) this.all.throttle(pause, sentAt);
+        final TokenBucket bucket = this.endpoints.get(endpoint);
+        if (bucket != null) bucket.throttle(pause, sentAt);
+    }
+
+    //
+
+    /**
+     * A class of Disk API endpoint, which may be given its own limit.
+     */
+    public enum Endpoint {
+        /** Listing, copying, moving, deleting and creating resources. */
+        METADATA,
+        /** Requesting an upload link. */
+        UPLOAD_LINK,
+        /** Requesting a download link. */
+        DOWNLOAD_LINK,
+        /** Polling the status of an asynchronous operation. */
+        STATUS;
+
+        /**
+         * Returns the class of the given Disk API endpoint, or null if the URI does not point to the Disk API.
+         */
+        public static @Nullable Endpoint of(@NotNull URI uri) {
+            if (!API_HOST.equalsIgnoreCase(uri.getHost())) return null;
+            final String path = uri.getPath();
+            if (path == null) return METADATA;
+            if (path.startsWith("/v1/disk/resources/upload")) return UPLOAD_LINK;
+            if (path.startsWith("/v1/disk/resources/download")) return DOWNLOAD_LINK;
+            if (path.startsWith("/v1/disk/operations")) return STATUS;
+            return METADATA;
+        }
+    }
+
+    private record Limit(double rate, int burst) {
+
+        Limit {
+            if (!(rate > 0d && rate < Double.POSITIVE_INFINITY))
+                throw new IllegalArgumentException("Rate must be positive (got " + rate + ")");
+            if (burst < 1)
+                throw new IllegalArgumentException("Burst must be positive (got " + burst + ")");
+        }
+
+        @NotNull TokenBucket create(long recovery) {
+            return new TokenBucket(this.rate, this.burst, TimeUnit.MILLISECONDS.toNanos(recovery));
+        }
+
+    }
+
+    //
+
+    public static final class Builder {
+
+        private Limit all;
+        private final Map<Endpoint, Limit> endpoints;
+        private long recovery;
+        private Builder() {
+            this.all = null;
+            this.endpoints = new EnumMap<>(Endpoint.class);
+            this.recovery = 30000L;
+        }
+
+        /**
+         * Limits the rate of all calls to the Disk API.
+         * @param rate Sustained number of requests per second.
+         * @param burst Number of requests which may be sent at once after a period of inactivity.
+         */
+        @Contract("_, _ -> this")
+        public @NotNull Builder limit(double rate, @Range(from = 1L, to = Integer.MAX_VALUE) int burst) {
+            this.all = new Limit(rate, burst);
+            return this;
+        }
+
+        /**
+         * Limits the rate of calls to one class of Disk API endpoint. This applies in addition to any
+         * {@link #limit(double, int) overall limit}.
+         * @param rate Sustained number of requests per second.
+         * @param burst Number of requests which may be sent at once after a period of inactivity.
+         */
+        @Contract("_, _, _ -> this")
+        public @NotNull Builder limit(
+                @NotNull Endpoint endpoint,
+                double rate,
+                @Range(from = 1L, to = Integer.MAX_VALUE) int burst
+        ) {
+            this.endpoints.put(endpoint, new Limit(rate, burst));
+            return this;
+        }
+
+        /**
+         * Sets the time over which a throttled rate grows back to its limit, in milliseconds. Default is 30000.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder recovery(@Range(from = 0L, to = Long.MAX_VALUE) long recovery) {
+            if (recovery < 0L)
+                throw new IllegalArgumentException("Recovery may not be negative (got " + recovery + ")");
+            this.recovery = recovery;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull RateLimiter build() {
+            return new RateLimiter(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,273 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.util.BackoffUtil;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Decides which failed exchanges are retried by a transport created with {@link Transport#withRetry(RetryPolicy)},
+ * and how long to wait before each retry.
+ * <ul>
+ *     <li>
+ *         An exchange is retried if it fails with an {@link IOException} other than an interruption or a
+ *         {@link CircuitOpenException}, or if the server responds with status 408, 429, 500, 502, 503 or 504.
+ *     </li>
+ *     <li>
+ *         The nth retry waits {@code initialDelay * multiplier^(n-1)}, capped at {@code maxDelay} and reduced by a
+ *         random fraction of up to {@code jitter}. If the response carries a {@code Retry-After} header, the retry
+ *         waits for that long instead; if that is longer than {@link Builder#maxRetryAfter(long) maxRetryAfter},
+ *         the response is returned as-is. No retry is made if the wait would pass the
+ *         {@link TransportRequest#deadline() deadline} of the request.
+ *     </li>
+ *     <li>
+ *         Retries draw from a budget shared by every request sent through the transport, so that an outage does not
+ *         multiply the load on the server. Each request adds {@link Builder#budget(double, int) ratio} to the budget
+ *         and each retry takes 1, with at most {@code burst} retries in reserve.
+ *     </li>
+ *     <li>
+ *         Only idempotent methods ({@code GET}, {@code HEAD}, {@code OPTIONS}, {@code TRACE}, {@code PUT},
+ *         {@code DELETE}) are retried, unless {@link Builder#retryNonIdempotent(boolean)} is set. In the Disk API,
+ *         these are every call except copy and move.
+ *     </li>
+ * </ul>
+ * @see #defaults()
+ * @since 0.5.0
+ */
+public final class RetryPolicy {
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE");
+    private static final RetryPolicy DEFAULT = builder().build();
+
+    /**
+     * The default policy: up to 4 attempts, waiting roughly 200ms, 400ms and 800ms between them, honoring
+     * {@code Retry-After} up to 1 minute, with a budget of 1 retry per 5 requests and 20 in reserve.
+     */
+    public static @NotNull RetryPolicy defaults() {
+        return DEFAULT;
+    }
+
+    @Contract("-> new")
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns true if an exchange which failed with the given exception may succeed if sent again.
+     */
+    public static boolean isRetryable(@NotNull IOException e) {
+        if (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException)) return false;
+        return !(e instanceof FileNotFoundException || e instanceof CircuitOpenException);
+    }
+
+    /**
+     * Returns true if an exchange which received a response with the given status may succeed if sent again.
+     */
+    public static boolean isRetryable(int status) {
+        return switch (status) {
+            case 408, 429, 500, 502, 503, 504 -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Returns true if sending a request with the given method twice has the same effect as sending it once.
+     */
+    public static boolean isIdempotent(@NotNull String method) {
+        return IDEMPOTENT_METHODS.contains(method.toUpperCase(Locale.ROOT));
+    }
+
+    //
+
+    private final int maxAttempts;
+    private final long initialDelay;
+    private final long maxDelay;
+    private final double multiplier;
+    private final double jitter;
+    private final long maxRetryAfter;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    private final boolean retryNonIdempotent;
+    private RetryPolicy(@NotNull Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.initialDelay = builder.initialDelay;
+        this.maxDelay = builder.maxDelay;
+        this.multiplier = builder.multiplier;
+        this.jitter = builder.jitter;
+        this.maxRetryAfter = builder.maxRetryAfter;
+        this.budgetRatio = builder.budgetRatio;
+        this.budgetBurst = builder.budgetBurst;
+        this.retryNonIdempotent = builder.retryNonIdempotent;
+    }
+
+    /**
+     * The greatest number of times a request is sent, including the first.
+     */
+    public int maxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * The greatest {@code Retry-After} which is honored, in milliseconds.
+     */
+    public long maxRetryAfter() {
+        return this.maxRetryAfter;
+    }
+
+    public double budgetRatio() {
+        return this.budgetRatio;
+    }
+
+    public int budgetBurst() {
+        return this.budgetBurst;
+    }
+
+    public boolean retryNonIdempotent() {
+        return this.retryNonIdempotent;
+    }
+
+    /**
+     * Returns true if a request with the given method may be retried under this policy.
+     */
+    public boolean allows(@NotNull String method) {
+        return this.retryNonIdempotent || isIdempotent(method);
+    }
+
+    /**
+     * Provides the time to wait before a retry.
+     * @param retry The number of the retry, starting at 1.
+     * @return A duration, in milliseconds.
+     */
+    public long delay(@Range(from = 1L, to = Integer.MAX_VALUE) int retry) {
+        return BackoffUtil.delay(this.initialDelay, this.maxDelay, this.multiplier, this.jitter, retry);
+    }
+
+    @Contract("-> new")
+    public @NotNull Builder toBuilder() {
+        final Builder ret = new Builder();
+        ret.maxAttempts = this.maxAttempts;
+        ret.initialDelay = this.initialDelay;
+        ret.maxDelay = this.maxDelay;
+        ret.multiplier = this.multiplier;
+        ret.jitter = this.jitter;
+        ret.maxRetryAfter = this.maxRetryAfter;
+        ret.budgetRatio = this.budgetRatio;
+        ret.budgetBurst = this.budgetBurst;
+        ret.retryNonIdempotent = this.retryNonIdempotent;
+        return ret;
+    }
+
+    //
+
+    public static final class Builder {
+
+        private int maxAttempts;
+        private long initialDelay;
+        private long maxDelay;
+        private double multiplier;
+        private double jitter;
+        private long maxRetryAfter;
+        private double budgetRatio;
+        private int budgetBurst;
+        private boolean retryNonIdempotent;
+        private Builder() {
+            this.maxAttempts = 4;
+            this.initialDelay = 200L;
+            this.maxDelay = 10000L;
+            this.multiplier = 2d;
+            this.jitter = 0.5d;
+            this.maxRetryAfter = 60000L;
+            this.budgetRatio = 0.2d;
+            this.budgetBurst = 20;
+            this.retryNonIdempotent = false;
+        }
+
+        /**
+         * Sets the greatest number of times a request is sent, including the first. 1 disables retries.
+         * Default is 4.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxAttempts(@Range(from = 1L, to = Integer.MAX_VALUE) int maxAttempts) {
+            if (maxAttempts < 1)
+                throw new IllegalArgumentException("Max attempts must be positive (got " + maxAttempts + ")");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the delays between attempts. Default is {@code backoff(200, 10000, 2, 0.5)}.
+         * @param initialDelay The delay before the first retry, in milliseconds.
+         * @param maxDelay The greatest delay before a retry, in milliseconds.
+         * @param multiplier The factor by which the delay grows after each retry. At least 1.
+         * @param jitter The greatest fraction of each delay which may be randomly removed, from 0 to 1.
+         */
+        @Contract("_, _, _, _ -> this")
+        public @NotNull Builder backoff(
+                @Range(from = 0L, to = Long.MAX_VALUE) long initialDelay,
+                @Range(from = 0L, to = Long.MAX_VALUE) long maxDelay,
+                double multiplier,
+                double jitter
+        ) {
+            BackoffUtil.validate(initialDelay, maxDelay, multiplier, jitter);
+            this.initialDelay = initialDelay;
+            this.maxDelay = maxDelay;
+            this.multiplier = multiplier;
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the greatest {@code Retry-After} which is honored, in milliseconds. A response asking for a longer
+         * wait is returned without retrying. Default is 60000 (1 minute).
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder maxRetryAfter(@Range(from = 0L, to = Long.MAX_VALUE) long maxRetryAfter) {
+            if (maxRetryAfter < 0L)
+                throw new IllegalArgumentException("Max Retry-After may not be negative (got " + maxRetryAfter + ")");
+            this.maxRetryAfter = maxRetryAfter;
+            return this;
+        }
+
+        /**
+         * Sets the retry budget. Each request adds {@code ratio} to the budget, and each retry takes 1; the budget
+         * starts at, and never exceeds, {@code burst}. Retries are not made while the budget is below 1.
+         * Default is {@code budget(0.2, 20)}.
+         * @param ratio Sustained number of retries allowed per request, from 0 to 1.
+         * @param burst Number of retries which may be made at once.
+         */
+        @Contract("_, _ -> this")
+        public @NotNull Builder budget(double ratio, @Range(from = 0L, to = Integer.MAX_VALUE) int burst) {
+            if (!(ratio >= 0d && ratio <= 1d))
+                throw new IllegalArgumentException("Budget ratio must be between 0 and 1 (got " + ratio + ")");
+            if (burst < 0)
+                throw new IllegalArgumentException("Budget burst may not be negative (got " + burst + ")");
+            this.budgetRatio = ratio;
+            this.budgetBurst = burst;
+            return this;
+        }
+
+        /**
+         * Sets whether requests with methods that are not idempotent (such as {@code POST}) are retried. A retried
+         * copy or move may fail if the first attempt succeeded without the response arriving. Default is false.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder retryNonIdempotent(boolean retryNonIdempotent) {
+            this.retryNonIdempotent = retryNonIdempotent;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+
+    }
+
+}
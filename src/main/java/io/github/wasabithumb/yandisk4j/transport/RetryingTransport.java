@@ -0,0 +1,176 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Transport} which retries failed exchanges made by another transport according to a
+ * {@link RetryPolicy}. Uploads are passed through as-is, since their bodies are streamed and cannot be replayed.
+ * @see Transport#withRetry(RetryPolicy)
+ */
+@ApiStatus.Internal
+final class RetryingTransport implements Transport {
+
+    /**
+     * Returns the wait requested by the {@code Retry-After} header of a response in milliseconds, -1 if
+     * the header is absent or malformed.
+     */
+    static long retryAfter(@NotNull TransportResponse response) {
+        String value = response.header("Retry-After");
+        if (value == null) return -1L;
+        value = value.trim();
+        try {
+            long seconds = Long.parseLong(value);
+            if (seconds < 0L) return -1L;
+            return TimeUnit.SECONDS.toMillis(seconds);
+        } catch (NumberFormatException ignored) { }
+        try {
+            Instant when = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(Duration.between(Instant.now(), when).toMillis(), 0L);
+        } catch (DateTimeParseException ignored) {
+            return -1L;
+        }
+    }
+
+    //
+
+    private final Transport backing;
+    private final RetryPolicy policy;
+    private double budget;
+    RetryingTransport(@NotNull Transport backing, @NotNull RetryPolicy policy) {
+        this.backing = backing;
+        this.policy = policy;
+        this.budget = policy.budgetBurst();
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        this.deposit();
+        int attempt = 1;
+        while (true) {
+            final TransportResponse response;
+            try {
+                response = this.backing.send(request);
+            } catch (IOException e) {
+                long delay = this.retryDelay(request, attempt, e);
+                if (delay < 0L) throw e;
+                sleep(delay, e);
+                attempt++;
+                continue;
+            }
+
+            long delay = this.retryDelay(request, attempt, response);
+            if (delay < 0L) return response;
+            response.close();
+            sleep(delay, null);
+            attempt++;
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request) {
+        this.deposit();
+        return this.sendAsync(request, 1);
+    }
+
+    private @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request, int attempt) {
+        return this.backing.sendAsync(request).handle((TransportResponse response, Throwable t) -> {
+            final long delay;
+            if (t != null) {
+                Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+                if (!(cause instanceof IOException e) || (delay = this.retryDelay(request, attempt, e)) < 0L)
+                    return CompletableFuture.<TransportResponse>failedFuture(cause);
+            } else {
+                delay = this.retryDelay(request, attempt, response);
+                if (delay < 0L) return CompletableFuture.completedFuture(response);
+                try {
+                    response.close();
+                } catch (IOException ignored) { }
+            }
+            Executor executor = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> null, executor)
+                    .thenCompose((Object ignored) -> this.sendAsync(request, attempt + 1));
+        }).thenCompose((CompletableFuture<TransportResponse> f) -> f);
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException {
+        return this.backing.upload(request, length);
+    }
+
+    @Override
+    public boolean isRetrying() {
+        return this.policy.maxAttempts() > 1 || this.backing.isRetrying();
+    }
+
+    //
+
+    /**
+     * Returns the time to wait before retrying a request which failed with the given exception,
+     * or -1 if the exception should be raised.
+     */
+    private long retryDelay(@NotNull TransportRequest request, int attempt, @NotNull IOException e) {
+        if (attempt >= this.policy.maxAttempts()) return -1L;
+        if (!RetryPolicy.isRetryable(e)) return -1L;
+        if (!this.policy.allows(request.method())) return -1L;
+
+        final long delay = this.policy.delay(attempt);
+        if (delay >= request.remaining()) return -1L;
+        return this.withdraw() ? delay : -1L;
+    }
+
+    /**
+     * Returns the time to wait before retrying a request which received the given response,
+     * or -1 if the response should be returned.
+     */
+    private long retryDelay(@NotNull TransportRequest request, int attempt, @NotNull TransportResponse response) {
+        if (attempt >= this.policy.maxAttempts()) return -1L;
+        if (!RetryPolicy.isRetryable(response.status())) return -1L;
+        if (!this.policy.allows(request.method())) return -1L;
+
+        long delay = retryAfter(response);
+        if (delay > this.policy.maxRetryAfter()) return -1L;
+        if (delay < 0L) delay = this.policy.delay(attempt);
+        if (delay >= request.remaining()) return -1L;
+        return this.withdraw() ? delay : -1L;
+    }
+
+    private synchronized void deposit() {
+        this.budget = Math.min(this.budget + this.policy.budgetRatio(), this.policy.budgetBurst());
+    }
+
+    private synchronized boolean withdraw() {
+        if (this.budget < 1d) return false;
+        this.budget -= 1d;
+        return true;
+    }
+
+    private static void sleep(long millis, @Nullable IOException failure) throws InterruptedIOException {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting to retry");
+            if (failure != null) ex.addSuppressed(failure);
+            throw ex;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps a {@link HttpResponse.BodySubscriber} so that a response body which stops arriving fails instead of
+ * stalling forever. A timer runs only while the consumer has requested data which the server has not yet sent,
+ * so a slow consumer does not cause a timeout. The timer is bounded by the read timeout of the transport and the
+ * {@link TransportRequest#deadline() deadline} of the request; when it fires, the exchange is cancelled and the
+ * body fails with a {@link HttpTimeoutException} or a {@link DeadlineExceededException} respectively.
+ */
+@ApiStatus.Internal
+final class TimedBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+    private static final ScheduledThreadPoolExecutor TIMER;
+    static {
+        TIMER = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("Transport Timer"));
+        TIMER.setKeepAliveTime(30L, TimeUnit.SECONDS);
+        TIMER.allowCoreThreadTimeOut(true);
+        TIMER.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Wraps the given handler, or returns it unchanged if neither a read timeout nor a deadline applies.
+     * @param timeout The read timeout in milliseconds, or 0 for no limit.
+     */
+    static <T> @NotNull HttpResponse.BodyHandler<T> wrap(
+            @NotNull HttpResponse.BodyHandler<T> handler,
+            @NotNull TransportRequest request,
+            long timeout
+    ) {
+        if (timeout == 0L && request.deadline() == null) return handler;
+        return (HttpResponse.ResponseInfo info) -> new TimedBodySubscriber<>(handler.apply(info), request, timeout);
+    }
+
+    //
+
+    private final HttpResponse.BodySubscriber<T> delegate;
+    private final TransportRequest request;
+    private final long timeout;
+    private Flow.Subscription subscription;
+    private long demand;
+    private ScheduledFuture<?> timer;
+    private long generation;
+    private boolean terminated;
+    TimedBodySubscriber(
+            @NotNull HttpResponse.BodySubscriber<T> delegate,
+            @NotNull TransportRequest request,
+            long timeout
+    ) {
+        this.delegate = delegate;
+        this.request = request;
+        this.timeout = timeout;
+        this.demand = 0L;
+        this.timer = null;
+        this.generation = 0L;
+        this.terminated = false;
+    }
+
+    @Override
+    public @NotNull CompletionStage<T> getBody() {
+        return this.delegate.getBody();
+    }
+
+    @Override
+    public void onSubscribe(@NotNull Flow.Subscription subscription) {
+        synchronized (this) {
+            this.subscription = subscription;
+        }
+        this.delegate.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                synchronized (TimedBodySubscriber.this) {
+                    if (n > 0L) {
+                        final long sum = TimedBodySubscriber.this.demand + n;
+                        TimedBodySubscriber.this.demand = sum < 0L ? Long.MAX_VALUE : sum;
+                    }
+                    TimedBodySubscriber.this.arm();
+                }
+                subscription.request(n);
+            }
+
+            @Override
+            public void cancel() {
+                synchronized (TimedBodySubscriber.this) {
+                    TimedBodySubscriber.this.terminated = true;
+                    TimedBodySubscriber.this.disarm();
+                }
+                subscription.cancel();
+            }
+        });
+    }
+
+    @Override
+    public synchronized void onNext(@NotNull List<ByteBuffer> item) {
+        if (this.terminated) return;
+        if (this.demand != Long.MAX_VALUE) this.demand--;
+        this.disarm();
+        this.delegate.onNext(item);
+        this.arm();
+    }
+
+    @Override
+    public synchronized void onError(@NotNull Throwable throwable) {
+        if (this.terminated) return;
+        this.terminated = true;
+        this.disarm();
+        this.delegate.onError(throwable);
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        if (this.terminated) return;
+        this.terminated = true;
+        this.disarm();
+        this.delegate.onComplete();
+    }
+
+    //
+
+    /**
+     * Starts the timer if data has been requested and the timer is not already running.
+     */
+    private void arm() {
+        if (this.terminated || this.demand == 0L || this.timer != null) return;
+        long delay = this.request.remaining();
+        if (this.timeout != 0L && this.timeout < delay) delay = this.timeout;
+        final long generation = ++this.generation;
+        this.timer = TIMER.schedule(() -> this.expire(generation), Math.max(delay, 0L), TimeUnit.MILLISECONDS);
+    }
+
+    private void disarm() {
+        if (this.timer == null) return;
+        this.timer.cancel(false);
+        this.timer = null;
+    }
+
+    private void expire(long generation) {
+        final IOException error;
+        synchronized (this) {
+            if (this.terminated || this.timer == null || generation != this.generation) return;
+            this.timer = null;
+            this.terminated = true;
+            error = this.request.remaining() <= 0L ?
+                    new DeadlineExceededException(this.request) :
+                    new HttpTimeoutException("Timed out waiting for response body");
+            this.delegate.onError(error);
+        }
+        this.subscription.cancel();
+    }
+
+}
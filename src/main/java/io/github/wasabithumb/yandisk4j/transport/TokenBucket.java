@@ -0,0 +1,95 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket which hands out reservations, and which slows down when the server reports that it is being
+ * sent too many requests. After a throttle the rate is halved, then grows back linearly to its limit over the
+ * recovery period. Rejections of requests which were sent before the last decrease do not lower the rate again,
+ * since those requests were paced at the old rate; a burst of rejections therefore halves the rate once.
+ */
+@ApiStatus.Internal
+final class TokenBucket {
+
+    private static final double MIN_FRACTION = 1d / 16d;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    private final double limit;
+    private final double burst;
+    private final long recovery;
+    private double tokens;
+    private long refilledAt;
+    private double floor;
+    private long throttledAt;
+    private long pausedUntil;
+    TokenBucket(double limit, int burst, long recovery) {
+        this.limit = limit;
+        this.burst = burst;
+        this.recovery = recovery;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+        this.floor = limit;
+        this.throttledAt = this.refilledAt;
+        this.pausedUntil = this.refilledAt;
+    }
+
+    //
+
+    /**
+     * The number of permits currently granted per second.
+     */
+    synchronized double rate() {
+        return this.rate(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit, returning the number of nanoseconds to wait before using it.
+     */
+    synchronized long reserve() {
+        final long now = System.nanoTime();
+        this.refill(now);
+        this.tokens -= 1d;
+
+        long wait = 0L;
+        if (this.tokens < 0d) wait = (long) Math.ceil(-this.tokens / this.rate(now) * NANOS_PER_SECOND);
+        return Math.max(wait, this.pausedUntil - now);
+    }
+
+    /**
+     * Reports that the server rejected a request for exceeding its rate limit.
+     * @param pause Time during which no further requests should be sent, in nanoseconds.
+     * @param sentAt {@link System#nanoTime()} at which the rejected request was sent
+     */
+    synchronized void throttle(long pause, long sentAt) {
+        final long now = System.nanoTime();
+        this.refill(now);
+        if (sentAt - this.throttledAt >= 0L) {
+            this.floor = Math.max(this.rate(now) / 2d, this.limit * MIN_FRACTION);
+            this.throttledAt = now;
+        }
+        if (this.tokens > 0d) this.tokens = 0d;
+        if (pause > 0L && now + pause - this.pausedUntil > 0L) this.pausedUntil = now + pause;
+    }
+
+    //
+
+    private double rate(long now) {
+        if (this.floor >= this.limit) return this.limit;
+        final long elapsed = now - this.throttledAt;
+        if (elapsed >= this.recovery) {
+            this.floor = this.limit;
+            return this.limit;
+        }
+        return this.floor + (this.limit - this.floor) * ((double) elapsed / this.recovery);
+    }
+
+    private void refill(long now) {
+        final long elapsed = now - this.refilledAt;
+        if (elapsed <= 0L) return;
+        this.tokens = Math.min(this.tokens + this.rate(now) * elapsed / NANOS_PER_SECOND, this.burst);
+        this.refilledAt = now;
+    }
+
+}
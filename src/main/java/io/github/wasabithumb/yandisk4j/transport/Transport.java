@@ -0,0 +1,140 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>
+ *     Performs the HTTP exchanges made by {@code yandisk4j}. A transport can be provided to
+ *     {@link io.github.wasabithumb.yandisk4j.YanDisk#yanDisk(java.util.function.Supplier, Transport) YanDisk#yanDisk}
+ *     and {@link io.github.wasabithumb.yandisk4j.auth.AuthHandlerBuilder#transport(Transport) AuthHandlerBuilder#transport}
+ *     to control how connections are made, pooled and reused.
+ * </p>
+ * <p>
+ *     Implementations must be thread-safe.
+ * </p>
+ * @see #defaultTransport()
+ * @see #urlConnection()
+ * @since 0.5.0
+ */
+public interface Transport {
+
+    /**
+     * Provides the shared default transport, backed by a single {@link java.net.http.HttpClient HttpClient}.
+     * @see HttpClientTransport
+     */
+    static @NotNull Transport defaultTransport() {
+        return HttpClientTransport.DEFAULT;
+    }
+
+    /**
+     * Provides a transport which opens a new {@link java.net.HttpURLConnection HttpURLConnection} for each
+     * request. This is how requests were made prior to {@code 0.5.0}.
+     */
+    static @NotNull Transport urlConnection() {
+        return URLConnectionTransport.INSTANCE;
+    }
+
+    /**
+     * Provides a transport which opens a new {@link java.net.HttpURLConnection HttpURLConnection} for each
+     * request, with the given timeouts. {@link #urlConnection()} waits 10 seconds to connect and 30 seconds
+     * for each read.
+     * @param connectTimeout Time to wait for a connection to be established, in milliseconds. 0 for no limit.
+     * @param readTimeout Time to wait for data from the server, in milliseconds. 0 for no limit.
+     * @since 0.5.0
+     */
+    static @NotNull Transport urlConnection(
+            @Range(from = 0L, to = Integer.MAX_VALUE) int connectTimeout,
+            @Range(from = 0L, to = Integer.MAX_VALUE) int readTimeout
+    ) {
+        if (connectTimeout < 0)
+            throw new IllegalArgumentException("Connect timeout may not be negative (got " + connectTimeout + ")");
+        if (readTimeout < 0)
+            throw new IllegalArgumentException("Read timeout may not be negative (got " + readTimeout + ")");
+        return new URLConnectionTransport(connectTimeout, readTimeout);
+    }
+
+    //
+
+    /**
+     * Provides a transport which sends requests through this one, retrying failed exchanges according to the
+     * given policy. Passing the result to {@link io.github.wasabithumb.yandisk4j.YanDisk#yanDisk(java.util.function.Supplier, Transport) YanDisk#yanDisk}
+     * applies the policy to every call made by that instance.
+     * @since 0.5.0
+     */
+    default @NotNull Transport withRetry(@NotNull RetryPolicy policy) {
+        return new RetryingTransport(this, policy);
+    }
+
+    /**
+     * Provides a transport which sends requests through this one, waiting as needed to stay within the limits
+     * of the given {@link RateLimiter}. When combined with {@link #withRetry(RetryPolicy)}, apply the rate limit
+     * first so that each retry also waits for a permit:
+     * {@code transport.withRateLimit(limiter).withRetry(policy)}.
+     * @since 0.5.0
+     */
+    default @NotNull Transport withRateLimit(@NotNull RateLimiter limiter) {
+        return new RateLimitedTransport(this, limiter);
+    }
+
+    /**
+     * Provides a transport which sends requests through this one, refusing requests to the Disk API with a
+     * {@link CircuitOpenException} while the given {@link CircuitBreaker} is open. When combined with other
+     * decorators, apply the breaker after {@link #withRateLimit(RateLimiter)} and before
+     * {@link #withRetry(RetryPolicy)}, so that refused calls neither wait for a permit nor get retried:
+     * {@code transport.withRateLimit(limiter).withCircuitBreaker(breaker).withRetry(policy)}.
+     * @since 0.5.0
+     */
+    default @NotNull Transport withCircuitBreaker(@NotNull CircuitBreaker breaker) {
+        return new CircuitBreakingTransport(this, breaker);
+    }
+
+    /**
+     * Sends a request and waits for the response headers. The response body is not necessarily read;
+     * the returned {@link TransportResponse} must be {@link TransportResponse#close() closed} to release any
+     * resources held by the exchange.
+     */
+    @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException;
+
+    /**
+     * Sends a request without blocking the calling thread. The returned future completes once the response
+     * has been received in full, or completes exceptionally with an {@link IOException} if the exchange fails.
+     * The default implementation runs {@link #send(TransportRequest)} on a shared worker thread and buffers the
+     * response body; implementations backed by non-blocking I/O should override this.
+     * @since 0.5.0
+     */
+    default @NotNull CompletableFuture<TransportResponse> sendAsync(@NotNull TransportRequest request) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (TransportResponse response = this.send(request)) {
+                return BufferedResponse.of(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, TransportExecutor.INSTANCE);
+    }
+
+    /**
+     * Starts a request with a streaming body. The {@link TransportRequest#body() body} of the given request
+     * is ignored; the content is instead written to {@link TransportUpload#body()}.
+     * @param length Exact length of the body, or -1 if unknown.
+     */
+    @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException;
+
+    /**
+     * Returns true if this transport already retries failed exchanges, as one made by
+     * {@link #withRetry(RetryPolicy)} does. Downloads use this to avoid retrying a failed request a second time.
+     * Transports which wrap another should pass this through.
+     * @since 0.5.0
+     */
+    default boolean isRetrying() {
+        return false;
+    }
+
+}
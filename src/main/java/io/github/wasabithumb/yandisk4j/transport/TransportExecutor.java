@@ -0,0 +1,18 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.util.NamedThreadFactory;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs blocking exchanges for transports which have no asynchronous API of their own.
+ * @see Transport#sendAsync(TransportRequest)
+ */
+@ApiStatus.Internal
+final class TransportExecutor {
+
+    static final ExecutorService INSTANCE = Executors.newCachedThreadPool(new NamedThreadFactory("Transport"));
+
+}
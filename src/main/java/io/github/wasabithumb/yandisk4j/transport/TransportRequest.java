@@ -0,0 +1,189 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable description of a request to be sent by a {@link Transport}.
+ * @see #builder(URI)
+ * @since 0.5.0
+ */
+public final class TransportRequest {
+
+    /**
+     * Creates a new {@link Builder} targeting the given URI. The default method is {@code GET}.
+     */
+    @Contract("_ -> new")
+    public static @NotNull Builder builder(@NotNull URI uri) {
+        return new Builder(uri);
+    }
+
+    /**
+     * Creates a new {@link Builder} targeting the given URI. The default method is {@code GET}.
+     */
+    @Contract("_ -> new")
+    public static @NotNull Builder builder(@NotNull String uri) {
+        return new Builder(URI.create(uri));
+    }
+
+    //
+
+    private final URI uri;
+    private final String method;
+    private final Map<String, String> headers;
+    private final byte[] body;
+    private final Instant deadline;
+    private TransportRequest(@NotNull Builder builder) {
+        this.uri = builder.uri;
+        this.method = builder.method;
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(builder.headers);
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = builder.body;
+        this.deadline = builder.deadline;
+    }
+
+    public @NotNull URI uri() {
+        return this.uri;
+    }
+
+    public @NotNull String method() {
+        return this.method;
+    }
+
+    /**
+     * The request headers. Keys are case-insensitive.
+     */
+    public @NotNull @UnmodifiableView Map<String, String> headers() {
+        return this.headers;
+    }
+
+    /**
+     * Returns the value of the named header, or null if not set.
+     */
+    public @Nullable String header(@NotNull String name) {
+        return this.headers.get(name);
+    }
+
+    /**
+     * The request body, or null if the request has no body.
+     */
+    public byte @Nullable [] body() {
+        return this.body;
+    }
+
+    /**
+     * The time by which the exchange must complete, including any retries, or null if there is none.
+     * @since 0.5.0
+     */
+    public @Nullable Instant deadline() {
+        return this.deadline;
+    }
+
+    /**
+     * The time remaining until the {@link #deadline() deadline} in milliseconds, which is 0 or negative once
+     * the deadline has passed. Returns {@link Long#MAX_VALUE} if the request has no deadline.
+     * @since 0.5.0
+     */
+    public long remaining() {
+        if (this.deadline == null) return Long.MAX_VALUE;
+        return Duration.between(Instant.now(), this.deadline).toMillis();
+    }
+
+    /**
+     * Creates a new {@link Builder} initialized with the properties of this request.
+     */
+    @Contract("-> new")
+    public @NotNull Builder toBuilder() {
+        Builder ret = new Builder(this.uri);
+        ret.method = this.method;
+        ret.headers.putAll(this.headers);
+        ret.body = this.body;
+        ret.deadline = this.deadline;
+        return ret;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return this.method + " " + this.uri;
+    }
+
+    //
+
+    public static final class Builder {
+
+        private URI uri;
+        private String method;
+        private final Map<String, String> headers;
+        private byte[] body;
+        private Instant deadline;
+        private Builder(@NotNull URI uri) {
+            this.uri = uri;
+            this.method = "GET";
+            this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            this.body = null;
+            this.deadline = null;
+        }
+
+        @Contract("_ -> this")
+        public @NotNull Builder uri(@NotNull URI uri) {
+            this.uri = uri;
+            return this;
+        }
+
+        @Contract("_ -> this")
+        public @NotNull Builder method(@NotNull String method) {
+            this.method = method;
+            return this;
+        }
+
+        /**
+         * Sets a header, replacing any previous value. If {@code value} is null, the header is removed.
+         */
+        @Contract("_, _ -> this")
+        public @NotNull Builder header(@NotNull String name, @Nullable String value) {
+            if (value == null) {
+                this.headers.remove(name);
+            } else {
+                this.headers.put(name, value);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the request body. The array is not copied, and should not be modified afterwards.
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder body(byte @Nullable [] body) {
+            this.body = body;
+            return this;
+        }
+
+        /**
+         * Sets the time by which the exchange must complete, including any retries. Transports fail with a
+         * {@link DeadlineExceededException} once it has passed. Default is null (no deadline).
+         * @since 0.5.0
+         */
+        @Contract("_ -> this")
+        public @NotNull Builder deadline(@Nullable Instant deadline) {
+            this.deadline = deadline;
+            return this;
+        }
+
+        @Contract("-> new")
+        public @NotNull TransportRequest build() {
+            return new TransportRequest(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.util.StreamUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * The response to a request made by a {@link Transport}. Must be {@link #close() closed} after use.
+ * @since 0.5.0
+ */
+public interface TransportResponse extends Closeable {
+
+    /**
+     * The HTTP status code.
+     */
+    int status();
+
+    /**
+     * Returns the first value of the named response header, or null if not present.
+     */
+    @Nullable String header(@NotNull String name);
+
+    /**
+     * The length of the response body as reported by the server, or -1 if unknown.
+     */
+    default @Range(from = -1L, to = Long.MAX_VALUE) long contentLength() {
+        String value = this.header("Content-Length");
+        if (value == null) return -1L;
+        try {
+            return Math.max(Long.parseLong(value.trim()), -1L);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * The response body. This is provided regardless of the {@link #status() status}, and is empty if the
+     * server sent no body. Closing the stream closes the response.
+     */
+    @NotNull InputStream body() throws IOException;
+
+    /**
+     * The response body as a channel, from which downloads to a file are read. Transports which can expose the
+     * body without going through an {@link InputStream} may override this; by default, the {@link #body() body}
+     * stream is wrapped. Closing the channel closes the response.
+     * <p>
+     * The bundled transports do not override this, so downloads still copy each chunk of the body from the
+     * stream into a heap buffer before it is written to the file. Reading through the channel only spares the
+     * {@link java.io.FileOutputStream} layer and keeps partial reads intact for resuming.
+     * </p>
+     */
+    default @NotNull ReadableByteChannel channel() throws IOException {
+        return StreamUtil.channel(this.body());
+    }
+
+    /**
+     * Releases the resources held by this exchange.
+     */
+    @Override
+    void close() throws IOException;
+
+}
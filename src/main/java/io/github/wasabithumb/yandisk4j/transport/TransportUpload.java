@@ -0,0 +1,55 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import io.github.wasabithumb.yandisk4j.util.BufferPool;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A request started by {@link Transport#upload(TransportRequest, long)} whose body is still being written.
+ * @since 0.5.0
+ */
+public interface TransportUpload {
+
+    /**
+     * The stream to write the request body to. Data is sent as it is written.
+     */
+    @NotNull OutputStream body();
+
+    /**
+     * Writes the remaining content of the buffer to the request body. The buffer is handed over to the transport
+     * and must not be modified afterward, which lets a transport send a buffer (such as a region of a
+     * memory-mapped file) without copying it. By default, the content is copied to the {@link #body() body}.
+     */
+    default void write(@NotNull ByteBuffer buffer) throws IOException {
+        final OutputStream os = this.body();
+        if (buffer.hasArray()) {
+            os.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+            return;
+        }
+        try (BufferPool.Lease lease = BufferPool.shared(BufferPool.DEFAULT_SIZE).lease()) {
+            final byte[] buf = lease.buffer().array();
+            while (buffer.hasRemaining()) {
+                final int len = Math.min(buf.length, buffer.remaining());
+                buffer.get(buf, 0, len);
+                os.write(buf, 0, len);
+            }
+        }
+    }
+
+    /**
+     * Abandons the request without finishing its body, so that the server does not take the data written so
+     * far as a complete upload, and releases the connection. Further writes fail, and {@link #response()} fails
+     * if called. Must not block. By default, this does nothing; transports should override it.
+     */
+    default void abort() { }
+
+    /**
+     * Closes the {@link #body() body} if not already closed, then waits for the response.
+     */
+    @NotNull TransportResponse response() throws IOException;
+
+}
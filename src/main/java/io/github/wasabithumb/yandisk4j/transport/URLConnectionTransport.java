@@ -0,0 +1,153 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.Map;
+
+@ApiStatus.Internal
+final class URLConnectionTransport implements Transport {
+
+    static final URLConnectionTransport INSTANCE = new URLConnectionTransport(10000, 30000);
+
+    /**
+     * Returns the smaller of a timeout and the time remaining until the deadline of a request,
+     * in the form accepted by {@link java.net.URLConnection URLConnection} (0 for no limit).
+     */
+    private static int timeout(int timeout, @NotNull TransportRequest request) throws DeadlineExceededException {
+        final long remaining = request.remaining();
+        if (remaining <= 0L) throw new DeadlineExceededException(request);
+        if (timeout == 0 || remaining < timeout) return (int) Math.min(remaining, Integer.MAX_VALUE);
+        return timeout;
+    }
+
+    //
+
+    private final int connectTimeout;
+    private final int readTimeout;
+    URLConnectionTransport(int connectTimeout, int readTimeout) {
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    private @NotNull HttpURLConnection open(@NotNull TransportRequest request) throws IOException {
+        final HttpURLConnection c = (HttpURLConnection) request.uri().toURL().openConnection();
+        c.setConnectTimeout(timeout(this.connectTimeout, request));
+        c.setReadTimeout(timeout(this.readTimeout, request));
+        c.setRequestMethod(request.method());
+        for (Map.Entry<String, String> header : request.headers().entrySet())
+            c.setRequestProperty(header.getKey(), header.getValue());
+        return c;
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        final HttpURLConnection c = this.open(request);
+        try {
+            final byte[] body = request.body();
+            if (body != null) {
+                c.setDoOutput(true);
+                c.setFixedLengthStreamingMode(body.length);
+                try (OutputStream os = c.getOutputStream()) {
+                    os.write(body);
+                    os.flush();
+                }
+            }
+            return new Response(c);
+        } catch (IOException e) {
+            c.disconnect();
+            throw DeadlineExceededException.translate(request, e);
+        }
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(
+            @NotNull TransportRequest request,
+            @Range(from = -1L, to = Long.MAX_VALUE) long length
+    ) throws IOException {
+        final HttpURLConnection c = this.open(request);
+        c.setDoOutput(true);
+        if (length == -1L) {
+            c.setChunkedStreamingMode(0);
+        } else {
+            c.setFixedLengthStreamingMode(length);
+        }
+        return new Upload(c, c.getOutputStream());
+    }
+
+    //
+
+    private record Upload(
+            @NotNull HttpURLConnection connection,
+            @NotNull OutputStream body
+    ) implements TransportUpload {
+
+        @Override
+        public void abort() {
+            this.connection.disconnect();
+        }
+
+        @Override
+        public @NotNull TransportResponse response() throws IOException {
+            this.body.close();
+            return new Response(this.connection);
+        }
+
+    }
+
+    private static final class Response implements TransportResponse {
+
+        private final HttpURLConnection connection;
+        private final int status;
+        private InputStream body;
+        Response(@NotNull HttpURLConnection connection) throws IOException {
+            this.connection = connection;
+            this.status = connection.getResponseCode();
+            this.body = null;
+        }
+
+        @Override
+        public int status() {
+            return this.status;
+        }
+
+        @Override
+        public @Nullable String header(@NotNull String name) {
+            return this.connection.getHeaderField(name);
+        }
+
+        @Override
+        public @Range(from = -1L, to = Long.MAX_VALUE) long contentLength() {
+            return this.connection.getContentLengthLong();
+        }
+
+        @Override
+        public synchronized @NotNull InputStream body() throws IOException {
+            if (this.body == null) {
+                InputStream is = this.status >= 400 ?
+                        this.connection.getErrorStream() :
+                        this.connection.getInputStream();
+                if (is == null) is = InputStream.nullInputStream();
+                this.body = is;
+            }
+            return this.body;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (this.body != null) {
+                this.body.close();
+            } else {
+                this.connection.disconnect();
+            }
+        }
+
+    }
+
+}
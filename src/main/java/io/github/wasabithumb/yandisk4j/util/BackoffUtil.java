@@ -0,0 +1,47 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter, as used by polling policies and retry policies.
+ */
+@ApiStatus.Internal
+public final class BackoffUtil {
+
+    /**
+     * Checks the parameters of a backoff.
+     * @throws IllegalArgumentException If any parameter is out of range
+     */
+    public static void validate(long initialDelay, long maxDelay, double multiplier, double jitter) {
+        if (initialDelay < 0L)
+            throw new IllegalArgumentException("Initial delay may not be negative (got " + initialDelay + ")");
+        if (maxDelay < initialDelay)
+            throw new IllegalArgumentException("Max delay may not be less than initial delay (got " + maxDelay + ")");
+        if (!(multiplier >= 1d))
+            throw new IllegalArgumentException("Multiplier must be at least 1 (got " + multiplier + ")");
+        if (!(jitter >= 0d && jitter <= 1d))
+            throw new IllegalArgumentException("Jitter must be between 0 and 1 (got " + jitter + ")");
+    }
+
+    /**
+     * Computes {@code initialDelay * multiplier^(attempt-1)}, capped at {@code maxDelay} and reduced by a random
+     * fraction of up to {@code jitter}.
+     * @param attempt The number of the attempt, starting at 1.
+     */
+    public static long delay(
+            long initialDelay,
+            long maxDelay,
+            double multiplier,
+            double jitter,
+            @Range(from = 1L, to = Integer.MAX_VALUE) int attempt
+    ) {
+        double delay = initialDelay * Math.pow(multiplier, Math.max(attempt - 1, 0));
+        delay = Math.min(delay, maxDelay);
+        if (jitter != 0d) delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+        return Math.round(delay);
+    }
+
+}
@@ -0,0 +1,117 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recycles buffers of a single size between transfers. Each pool keeps up to {@link #MAX_RETAINED_BYTES}
+ * worth of idle buffers; buffers released beyond that are left to the garbage collector. Pools are shared
+ * by size, see {@link #shared(int)}.
+ */
+@ApiStatus.Internal
+public final class BufferPool {
+
+    /** Size of the buffers used when no other size is configured */
+    public static final int DEFAULT_SIZE = 65536;
+
+    /** Maximum number of bytes held by the idle buffers of one pool */
+    static final long MAX_RETAINED_BYTES = 16L << 20;
+
+    private static final Map<Integer, BufferPool> SHARED = new ConcurrentHashMap<>();
+
+    /**
+     * Provides the pool of buffers with the given size, shared by everything which uses that size.
+     */
+    public static @NotNull BufferPool shared(int size) {
+        if (size < 1)
+            throw new IllegalArgumentException("Buffer size must be positive (got " + size + ")");
+        return SHARED.computeIfAbsent(size, BufferPool::new);
+    }
+
+    //
+
+    private final int size;
+    private final int capacity;
+    private final Queue<ByteBuffer> idle;
+    private final AtomicInteger idleCount;
+    private BufferPool(int size) {
+        this.size = size;
+        this.capacity = (int) Math.max(2L, MAX_RETAINED_BYTES / size);
+        this.idle = new ConcurrentLinkedQueue<>();
+        this.idleCount = new AtomicInteger(0);
+    }
+
+    //
+
+    /**
+     * The capacity of the buffers in this pool.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Takes an idle buffer from the pool, or allocates a new one. The buffer is array-backed and
+     * {@link ByteBuffer#clear() cleared}.
+     */
+    public @NotNull ByteBuffer acquire() {
+        final ByteBuffer buffer = this.idle.poll();
+        if (buffer == null) return ByteBuffer.allocate(this.size);
+        this.idleCount.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a buffer to the pool. The buffer must not be used afterward.
+     */
+    public void release(@NotNull ByteBuffer buffer) {
+        if (buffer.capacity() != this.size || !buffer.hasArray()) return;
+        if (this.idleCount.incrementAndGet() > this.capacity) {
+            this.idleCount.decrementAndGet();
+            return;
+        }
+        this.idle.offer(buffer);
+    }
+
+    /**
+     * Takes a buffer which is returned to the pool when the lease is closed.
+     */
+    public @NotNull Lease lease() {
+        return new Lease(this, this.acquire());
+    }
+
+    //
+
+    public static final class Lease implements AutoCloseable {
+
+        private final BufferPool pool;
+        private ByteBuffer buffer;
+        private Lease(@NotNull BufferPool pool, @NotNull ByteBuffer buffer) {
+            this.pool = pool;
+            this.buffer = buffer;
+        }
+
+        public @NotNull ByteBuffer buffer() {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer == null) throw new IllegalStateException("Lease is closed");
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            final ByteBuffer buffer = this.buffer;
+            if (buffer == null) return;
+            this.buffer = null;
+            this.pool.release(buffer);
+        }
+
+    }
+
+}
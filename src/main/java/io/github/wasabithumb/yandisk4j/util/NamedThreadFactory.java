@@ -0,0 +1,43 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates threads named {@code YanDisk <descriptor> Thread #n}, recycling
+ * the numbers of threads which have terminated.
+ */
+@ApiStatus.Internal
+public final class NamedThreadFactory implements ThreadFactory {
+
+    private final String descriptor;
+    private final boolean daemon;
+    private final IDVendor vendor;
+    public NamedThreadFactory(@NotNull String descriptor, boolean daemon) {
+        this.descriptor = descriptor;
+        this.daemon = daemon;
+        this.vendor = new IDVendor();
+    }
+
+    public NamedThreadFactory(@NotNull String descriptor) {
+        this(descriptor, true);
+    }
+
+    @Override
+    public @NotNull Thread newThread(@NotNull Runnable r) {
+        final int id = this.vendor.next();
+        final Thread ret = new Thread(() -> {
+            try {
+                r.run();
+            } finally {
+                this.vendor.free(id);
+            }
+        });
+        ret.setName("YanDisk " + this.descriptor + " Thread #" + (id + 1));
+        ret.setDaemon(this.daemon);
+        return ret;
+    }
+
+}
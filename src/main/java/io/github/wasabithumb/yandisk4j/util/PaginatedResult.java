@@ -4,12 +4,25 @@ import io.github.wasabithumb.yandisk4j.except.YanDiskException;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class PaginatedResult<T> implements Iterable<T> {
 
+    private static final ExecutorService PREFETCH_EXECUTOR =
+            Executors.newCachedThreadPool(new NamedThreadFactory("Prefetch"));
+
     private final Operation<T> operation;
     private final int limit;
 
@@ -43,6 +56,115 @@ public class PaginatedResult<T> implements Iterable<T> {
         return new Iter<>(this);
     }
 
+    /**
+     * Counts the pages in this query by probing single entries at page boundaries.
+     * This takes a number of requests logarithmic in the number of pages.
+     */
+    int pageCount() throws YanDiskException {
+        if (!this.hasPage(0)) return 0;
+        final int max = Integer.MAX_VALUE / this.limit;
+
+        // Invariant: page lo exists, page hi does not
+        int lo = 0;
+        int hi = 1;
+        while (true) {
+            if (hi >= max) {
+                hi = max;
+                break;
+            }
+            if (!this.hasPage(hi)) break;
+            lo = hi;
+            hi = (hi > (max >> 1)) ? max : (hi << 1);
+        }
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (this.hasPage(mid)) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    private boolean hasPage(int page) throws YanDiskException {
+        return !this.operation.execute(1, this.limit * page).isEmpty();
+    }
+
+    /**
+     * Returns an iterator which joins together pages to provide a continuous view of the source data,
+     * fetching up to {@code prefetch} pages ahead of the page currently being consumed in the background.
+     * At most {@code prefetch + 1} pages are held in memory at any time. Fetching begins as soon as
+     * the iterator is created. Like {@link #iterator()}, usage of the iterator may sneakily throw
+     * {@link YanDiskException}.
+     * @param prefetch The number of pages to fetch ahead. If 0, this is equivalent to {@link #iterator()}.
+     * @throws IllegalArgumentException The prefetch count is negative
+     * @since 0.5.0
+     */
+    public @NotNull Iterator<T> iterator(int prefetch) throws IllegalArgumentException {
+        return this.iterator(prefetch, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * Returns an iterator which joins together pages to provide a continuous view of the source data,
+     * fetching up to {@code prefetch} pages ahead on the given executor.
+     * @see #iterator(int)
+     * @since 0.5.0
+     */
+    public @NotNull Iterator<T> iterator(int prefetch, @NotNull Executor executor) throws IllegalArgumentException {
+        if (prefetch < 0) throw new IllegalArgumentException("Prefetch count may not be negative (got " + prefetch + ")");
+        if (prefetch == 0) return new Iter<>(this);
+        return new PrefetchIter<>(this, prefetch, executor);
+    }
+
+    /**
+     * Provides a view of this result whose iterator is {@link #iterator(int) prefetching},
+     * for use in enhanced for loops.
+     * @param prefetch The number of pages to fetch ahead.
+     * @see #iterator(int)
+     * @since 0.5.0
+     */
+    public @NotNull Iterable<T> prefetch(int prefetch) throws IllegalArgumentException {
+        if (prefetch < 0) throw new IllegalArgumentException("Prefetch count may not be negative (got " + prefetch + ")");
+        return () -> this.iterator(prefetch);
+    }
+
+    /**
+     * Returns a spliterator which joins together pages to provide a continuous view of the source data.
+     * Like {@link #iterator()}, usage of the spliterator may sneakily throw {@link YanDiskException}.
+     * @since 0.5.0
+     */
+    @Override
+    public @NotNull Spliterator<T> spliterator() {
+        return new PaginatedSpliterator<>(this, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a sequential stream over the joined pages of this query. Pages are fetched as the stream
+     * is consumed. Usage of the stream may sneakily throw {@link YanDiskException}.
+     * @since 0.5.0
+     * @see #parallelStream()
+     */
+    public @NotNull Stream<T> stream() {
+        return StreamSupport.stream(this::spliterator, PaginatedSpliterator.CHARACTERISTICS, false);
+    }
+
+    /**
+     * Returns a parallel stream over the joined pages of this query. When the terminal operation begins, the
+     * number of pages is determined by probing single entries (a number of requests logarithmic in the number
+     * of pages); the range of pages is then divided among workers, which fetch disjoint ranges at the same time.
+     * Usage of the stream may sneakily throw {@link YanDiskException}.
+     * @since 0.5.0
+     * @see #stream()
+     */
+    public @NotNull Stream<T> parallelStream() {
+        return StreamSupport.stream(
+                () -> new PaginatedSpliterator<>(this, this.pageCount()),
+                PaginatedSpliterator.CHARACTERISTICS,
+                true
+        );
+    }
+
     //
 
     @FunctionalInterface
@@ -105,4 +227,86 @@ public class PaginatedResult<T> implements Iterable<T> {
 
     }
 
+    @ApiStatus.Internal
+    static final class PrefetchIter<Q> implements Iterator<Q> {
+
+        private final PaginatedResult<Q> src;
+        private final Executor executor;
+        private final Deque<CompletableFuture<List<Q>>> pending;
+        private List<Q> data;
+        private int subHead;
+        private int nextPage;
+        private boolean last;
+        PrefetchIter(@NotNull PaginatedResult<Q> src, int prefetch, @NotNull Executor executor) {
+            this.src = src;
+            this.executor = executor;
+            this.pending = new ArrayDeque<>(prefetch);
+            this.data = null;
+            this.subHead = 0;
+            this.nextPage = 0;
+            this.last = false;
+            for (int i=0; i < prefetch; i++) this.schedule();
+        }
+
+        private void schedule() {
+            final int page = this.nextPage++;
+            this.pending.addLast(CompletableFuture.supplyAsync(() -> this.src.get(page), this.executor));
+        }
+
+        private @NotNull List<Q> await(@NotNull CompletableFuture<List<Q>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error er) throw er;
+                throw e;
+            }
+        }
+
+        private boolean advance() {
+            while (true) {
+                if (this.data != null && this.subHead < this.data.size()) return true;
+                if (this.last) return false;
+
+                final CompletableFuture<List<Q>> future = this.pending.removeFirst();
+                final List<Q> data;
+                try {
+                    data = this.await(future);
+                } catch (RuntimeException | Error e) {
+                    this.abandon();
+                    throw e;
+                }
+
+                this.data = data;
+                this.subHead = 0;
+                if (data.size() < this.src.limit) {
+                    this.abandon();
+                } else {
+                    this.schedule();
+                }
+            }
+        }
+
+        private void abandon() {
+            this.last = true;
+            CompletableFuture<List<Q>> future;
+            while ((future = this.pending.pollFirst()) != null) {
+                future.cancel(false);
+            }
+        }
+
+        @Override
+        public synchronized boolean hasNext() {
+            return this.advance();
+        }
+
+        @Override
+        public synchronized Q next() {
+            if (!this.advance()) throw new NoSuchElementException();
+            return this.data.get(this.subHead++);
+        }
+
+    }
+
 }
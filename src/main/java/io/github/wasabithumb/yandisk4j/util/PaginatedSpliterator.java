@@ -0,0 +1,112 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of pages of a {@link PaginatedResult}. Splitting divides the range of pages
+ * which have not yet been fetched, so that each half fetches a disjoint range of offsets. Spliterators
+ * produced by splitting share knowledge of where the result ends, and stop fetching once any one of them
+ * encounters a short page.
+ */
+@ApiStatus.Internal
+final class PaginatedSpliterator<T> implements Spliterator<T> {
+
+    static final int CHARACTERISTICS = Spliterator.ORDERED;
+
+    private final PaginatedResult<T> src;
+    private final AtomicInteger end;
+    private int page;
+    private int fence;
+    private List<T> data;
+    private int subHead;
+    private PaginatedSpliterator(@NotNull PaginatedResult<T> src, @NotNull AtomicInteger end, int page, int fence) {
+        this.src = src;
+        this.end = end;
+        this.page = page;
+        this.fence = fence;
+        this.data = null;
+        this.subHead = 0;
+    }
+
+    /**
+     * @param fence The first page to exclude, or {@link Integer#MAX_VALUE} if the number of pages
+     *              is not known.
+     */
+    PaginatedSpliterator(@NotNull PaginatedResult<T> src, int fence) {
+        this(src, new AtomicInteger(Integer.MAX_VALUE), 0, fence);
+    }
+
+    //
+
+    private int limit() {
+        return Math.min(this.fence, this.end.get());
+    }
+
+    private boolean fetch() {
+        if (this.page >= this.limit()) {
+            this.data = null;
+            return false;
+        }
+        final int page = this.page++;
+        final List<T> data = this.src.get(page);
+        if (data.size() < this.src.limit()) this.end.accumulateAndGet(page + 1, Math::min);
+        this.data = data;
+        this.subHead = 0;
+        return true;
+    }
+
+    private boolean inPage() {
+        return this.data != null && this.subHead < this.data.size();
+    }
+
+    @Override
+    public boolean tryAdvance(@NotNull Consumer<? super T> action) {
+        while (!this.inPage()) {
+            if (!this.fetch()) return false;
+        }
+        action.accept(this.data.get(this.subHead++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(@NotNull Consumer<? super T> action) {
+        do {
+            while (this.inPage()) action.accept(this.data.get(this.subHead++));
+        } while (this.fetch());
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        // Splitting mid-page would hand out elements which come after the remainder of this page
+        if (this.inPage()) return null;
+        if (this.fence == Integer.MAX_VALUE) this.fence = this.src.pageCount();
+
+        final int lo = this.page;
+        final int hi = this.limit();
+        if (hi - lo < 2) return null;
+
+        final int mid = (lo + hi) >>> 1;
+        this.page = mid;
+        return new PaginatedSpliterator<>(this.src, this.end, lo, mid);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (this.fence == Integer.MAX_VALUE) return Long.MAX_VALUE;
+        long ret = Math.max(this.limit() - this.page, 0) * (long) this.src.limit();
+        if (this.inPage()) ret += this.data.size() - this.subHead;
+        return ret;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+}
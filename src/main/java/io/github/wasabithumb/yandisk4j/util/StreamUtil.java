@@ -3,24 +3,144 @@ package io.github.wasabithumb.yandisk4j.util;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.LongConsumer;
 
 @ApiStatus.Internal
 public final class StreamUtil {
 
     public static void pipe(@NotNull InputStream is, @NotNull OutputStream os, int bufSize) throws IOException {
-        byte[] buf = new byte[bufSize];
-        int read;
-        while ((read = is.read(buf, 0, bufSize)) != -1) {
-            os.write(buf, 0, read);
+        try (BufferPool.Lease lease = BufferPool.shared(bufSize).lease()) {
+            final byte[] buf = lease.buffer().array();
+            int read;
+            while ((read = is.read(buf, 0, bufSize)) != -1) {
+                os.write(buf, 0, read);
+            }
         }
         os.flush();
     }
 
+    /**
+     * Pipes the input stream to the output stream through the given array-backed buffer, reporting the size of
+     * each chunk written. If the output stream is a plain {@link FileOutputStream}, data is written through its
+     * channel as with {@link #pipe(ReadableByteChannel, FileChannel, ByteBuffer, LongConsumer)}.
+     */
+    public static void pipe(
+            @NotNull InputStream is,
+            @NotNull OutputStream os,
+            @NotNull ByteBuffer buf,
+            @NotNull LongConsumer progress
+    ) throws IOException {
+        if (os.getClass() == FileOutputStream.class) {
+            pipe(channel(is), ((FileOutputStream) os).getChannel(), buf, progress);
+            return;
+        }
+        final byte[] array = buf.array();
+        final int off = buf.arrayOffset();
+        final int len = buf.capacity();
+        int read;
+        while ((read = is.read(array, off, len)) != -1) {
+            os.write(array, off, read);
+            progress.accept(read);
+        }
+    }
+
+    /**
+     * Pipes the channel to the file channel, writing from the current position of the file channel and reporting
+     * the size of each chunk written. If the source is itself a {@link FileChannel}, bytes are moved with
+     * {@link FileChannel#transferFrom(ReadableByteChannel, long, long) transferFrom}; otherwise they are read into
+     * the given buffer.
+     */
+    public static void pipe(
+            @NotNull ReadableByteChannel src,
+            @NotNull FileChannel dst,
+            @NotNull ByteBuffer buf,
+            @NotNull LongConsumer progress
+    ) throws IOException {
+        if (src instanceof FileChannel) {
+            long position = dst.position();
+            long n;
+            while ((n = dst.transferFrom(src, position, buf.capacity())) > 0L) {
+                position += n;
+                progress.accept(n);
+            }
+            dst.position(position);
+            return;
+        }
+        int read;
+        while (true) {
+            buf.clear();
+            if ((read = src.read(buf)) == -1) break;
+            buf.flip();
+            while (buf.hasRemaining()) dst.write(buf);
+            if (read != 0) progress.accept(read);
+        }
+    }
+
     public static void pipe(@NotNull InputStream is, @NotNull OutputStream os) throws IOException {
-        pipe(is, os, 8192);
+        pipe(is, os, BufferPool.DEFAULT_SIZE);
+    }
+
+    /**
+     * Wraps the input stream in a channel. Unlike {@link Channels#newChannel(InputStream)}, each read from the
+     * channel makes at most one read from the stream, so bytes which have been read are never lost to an
+     * exception thrown by a later read.
+     */
+    public static @NotNull ReadableByteChannel channel(@NotNull InputStream is) {
+        if (is.getClass() == FileInputStream.class) return ((FileInputStream) is).getChannel();
+        return new InputStreamChannel(is);
+    }
+
+    //
+
+    private static final class InputStreamChannel implements ReadableByteChannel {
+
+        private final InputStream is;
+        private byte[] buf;
+        private boolean open;
+        InputStreamChannel(@NotNull InputStream is) {
+            this.is = is;
+            this.buf = null;
+            this.open = true;
+        }
+
+        @Override
+        public int read(@NotNull ByteBuffer dst) throws IOException {
+            if (!this.open) throw new ClosedChannelException();
+            final int len = dst.remaining();
+            if (len == 0) return 0;
+            if (dst.hasArray()) {
+                final int read = this.is.read(dst.array(), dst.arrayOffset() + dst.position(), len);
+                if (read > 0) dst.position(dst.position() + read);
+                return read;
+            }
+            byte[] buf = this.buf;
+            if (buf == null) this.buf = buf = new byte[Math.min(len, BufferPool.DEFAULT_SIZE)];
+            final int read = this.is.read(buf, 0, Math.min(len, buf.length));
+            if (read > 0) dst.put(buf, 0, read);
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.open = false;
+            this.is.close();
+        }
+
     }
 
 }
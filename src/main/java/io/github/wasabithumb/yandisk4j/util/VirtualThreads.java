@@ -0,0 +1,78 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual threads on Java 21 and newer, through reflection so that the library
+ * still runs on Java 17. Virtual threads are used by default for transfers and operation polling
+ * when the {@code yandisk4j.virtualThreads} system property is {@code true} and they are supported.
+ */
+@ApiStatus.Internal
+public final class VirtualThreads {
+
+    public static final String PROPERTY = "yandisk4j.virtualThreads";
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            final Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ReflectiveOperationException ignored) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    /**
+     * Returns true if the runtime supports virtual threads (Java 21 or newer).
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Returns true if virtual threads are supported and have been requested through
+     * the {@link #PROPERTY system property}.
+     */
+    public static boolean isEnabled() {
+        return isSupported() && Boolean.getBoolean(PROPERTY);
+    }
+
+    /**
+     * Creates a factory for virtual threads named {@code YanDisk <descriptor> Virtual Thread #n}.
+     * @throws UnsupportedOperationException Virtual threads are not {@link #isSupported() supported}
+     */
+    public static @NotNull ThreadFactory factory(@NotNull String descriptor) throws UnsupportedOperationException {
+        if (!isSupported())
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, "YanDisk " + descriptor + " Virtual Thread #", 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Failed to create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Creates a factory for virtual threads if {@link #isEnabled() enabled}, otherwise null.
+     */
+    public static @Nullable ThreadFactory factoryIfEnabled(@NotNull String descriptor) {
+        return isEnabled() ? factory(descriptor) : null;
+    }
+
+}
@@ -0,0 +1,104 @@
+package io.github.wasabithumb.yandisk4j.node;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import io.github.wasabithumb.yandisk4j.util.JsonUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeListDecoderTest {
+
+    private static final String FILE = "{\"antivirus_status\":\"clean\",\"size\":1024,\"exif\":{\"date_time\":\"2024-01-01T00:00:00+00:00\"}," +
+            "\"name\":\"a.txt\",\"created\":\"2024-01-01T00:00:00+00:00\",\"modified\":\"2024-01-02T00:00:00+00:00\"," +
+            "\"sizes\":[{\"url\":\"https://example.com\",\"name\":\"DEFAULT\"}],\"path\":\"disk:/a.txt\",\"md5\":\"abc\"," +
+            "\"type\":\"file\",\"mime_type\":\"text/plain\",\"custom_properties\":{\"foo\":[1,2,{\"bar\":null}]}}";
+
+    private static final String DIR = "{\"path\":\"disk:/b\",\"type\":\"dir\",\"name\":\"b\",\"preview\":null," +
+            "\"created\":\"2024-01-01T00:00:00+00:00\",\"modified\":\"2024-01-01T00:00:00+00:00\"}";
+
+    @Test
+    void flat() throws IOException {
+        String json = "{\"limit\":20,\"items\":[" + FILE + "," + DIR + "],\"offset\":0}";
+        NodeListDecoder.Listing listing = decode(json, false);
+
+        assertNull(listing.error());
+        assertNodesEqual(tree(json, false), listing.items());
+    }
+
+    @Test
+    void embedded() throws IOException {
+        String json = "{\"_embedded\":{\"sort\":\"path\",\"items\":[" + DIR + "," + FILE + "],\"limit\":20},\"type\":\"dir\",\"name\":\"root\"}";
+        NodeListDecoder.Listing listing = decode(json, true);
+
+        assertEquals("dir", listing.type());
+        assertNodesEqual(tree(json, true), listing.items());
+    }
+
+    @Test
+    void error() throws IOException {
+        String json = "{\"message\":\"Resource not found\",\"description\":\"Resource not found.\",\"error\":\"DiskNotFoundError\"}";
+        NodeListDecoder.Listing listing = decode(json, false);
+
+        assertEquals("DiskNotFoundError", listing.error());
+        assertEquals("Resource not found.", listing.errorDescription());
+        assertTrue(listing.items().isEmpty());
+    }
+
+    @Test
+    void missingProperty() {
+        String json = "{\"items\":[{\"type\":\"file\",\"name\":\"a\",\"path\":\"disk:/a\"}]}";
+        assertThrows(IllegalArgumentException.class, () -> decode(json, false));
+    }
+
+    @Test
+    void fields() {
+        assertEquals(
+                "items.type,items.name,items.path,items.created,items.modified,items.md5,items.mime_type,items.size",
+                NodeListDecoder.fields(false)
+        );
+        assertEquals(
+                "type,_embedded.items.type,_embedded.items.name,_embedded.items.path,_embedded.items.created," +
+                        "_embedded.items.modified,_embedded.items.md5,_embedded.items.mime_type,_embedded.items.size",
+                NodeListDecoder.fields(true)
+        );
+    }
+
+    @Test
+    void projectedEmpty() throws IOException {
+        NodeListDecoder.Listing listing = decode("{\"type\":\"dir\"}", true);
+        assertEquals("dir", listing.type());
+        assertTrue(listing.items().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> decode("{}", true));
+        assertThrows(IllegalArgumentException.class, () -> decode("{\"type\":\"dir\"}", false));
+    }
+
+    //
+
+    private static NodeListDecoder.Listing decode(String json, boolean embedded) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return NodeListDecoder.decode(reader, embedded);
+        }
+    }
+
+    private static void assertNodesEqual(List<Node> expected, List<Node> actual) {
+        // NodePath does not define equality, so compare the rendered records
+        assertEquals(expected.size(), actual.size());
+        for (int i=0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.get(i).toString());
+        }
+    }
+
+    private static List<Node> tree(String json, boolean embedded) {
+        JsonObject object = new Gson().fromJson(json, JsonObject.class);
+        if (embedded) object = JsonUtil.getObjectProperty(object, "_embedded");
+        return JsonUtil.getObjectListProperty(object, "items", Node::fromJson);
+    }
+
+}
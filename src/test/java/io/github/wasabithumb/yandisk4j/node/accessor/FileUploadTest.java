@@ -0,0 +1,172 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
+import io.github.wasabithumb.yandisk4j.transfer.Transfer;
+import io.github.wasabithumb.yandisk4j.transport.TestResponse;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUploadTest {
+
+    @Test
+    void regions() throws IOException, InterruptedException {
+        final byte[] data = new byte[(int) (FileUpload.REGION_SIZE * 2 + 1234)];
+        ThreadLocalRandom.current().nextBytes(data);
+        Path path = Files.createTempFile("yandisk4j", ".bin");
+        Files.write(path, data);
+
+        SinkTransport transport = new SinkTransport(true);
+        Transfer t = new NodeUploader("https://example.com/file", "PUT", transport).writeAsync(path.toFile());
+        t.block();
+
+        assertNull(t.error());
+        assertArrayEquals(data, transport.received.toByteArray());
+        assertEquals(List.of(FileUpload.REGION_SIZE, FileUpload.REGION_SIZE, 1234L), transport.regions);
+        assertEquals(data.length, transport.length);
+        assertEquals(data.length, t.transferred());
+        assertEquals(data.length, t.total());
+    }
+
+    @Test
+    void stream() throws IOException {
+        final byte[] data = new byte[100000];
+        ThreadLocalRandom.current().nextBytes(data);
+        Path path = Files.createTempFile("yandisk4j", ".bin");
+        Files.write(path, data);
+
+        SinkTransport transport = new SinkTransport(false);
+        new NodeUploader("https://example.com/file", "PUT", transport).write(path.toFile());
+
+        assertArrayEquals(data, transport.received.toByteArray());
+        assertTrue(transport.regions.isEmpty());
+    }
+
+    @Test
+    void failure() throws IOException, InterruptedException {
+        final byte[] data = new byte[(int) (FileUpload.REGION_SIZE + 1234)];
+        Path path = Files.createTempFile("yandisk4j", ".bin");
+        Files.write(path, data);
+
+        SinkTransport transport = new SinkTransport(true);
+        transport.fail = true;
+        Transfer t = new NodeUploader("https://example.com/file", "PUT", transport).writeAsync(path.toFile());
+        t.block();
+
+        assertNotNull(t.error());
+        assertTrue(transport.aborted);
+        assertFalse(transport.responded);
+    }
+
+    @Test
+    void streamFailure() throws InterruptedException {
+        SinkTransport transport = new SinkTransport(false);
+        NodeUploader uploader = new NodeUploader("https://example.com/file", "PUT", transport);
+        assertThrows(YanDiskIOException.class, () -> uploader.write(new BrokenInputStream(1000)));
+        assertTrue(transport.aborted);
+        assertFalse(transport.responded);
+
+        transport = new SinkTransport(false);
+        Transfer t = new NodeUploader("https://example.com/file", "PUT", transport)
+                .writeAsync(new BrokenInputStream(1000));
+        t.block();
+        assertNotNull(t.error());
+        assertTrue(transport.aborted);
+        assertFalse(transport.responded);
+    }
+
+    //
+
+    /**
+     * Provides zeroes, then fails.
+     */
+    private static final class BrokenInputStream extends InputStream {
+
+        private int remaining;
+        BrokenInputStream(int length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (this.remaining == 0) throw new IOException("Source failed");
+            this.remaining--;
+            return 0;
+        }
+
+    }
+
+    /**
+     * Collects the body of an upload, either through buffers handed over by {@link TransportUpload#write(ByteBuffer)}
+     * or through the default stream. If {@link #fail} is set, buffers are refused.
+     */
+    private static final class SinkTransport implements Transport {
+
+        private final boolean buffers;
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        final List<Long> regions = new ArrayList<>();
+        long length = -1L;
+        boolean fail = false;
+        volatile boolean aborted = false;
+        volatile boolean responded = false;
+        SinkTransport(boolean buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public @NotNull TransportResponse send(@NotNull TransportRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+            this.length = length;
+            final SinkTransport self = this;
+            return new TransportUpload() {
+                @Override
+                public @NotNull OutputStream body() {
+                    return self.received;
+                }
+
+                @Override
+                public void write(@NotNull ByteBuffer buffer) throws IOException {
+                    if (!self.buffers) {
+                        TransportUpload.super.write(buffer);
+                        return;
+                    }
+                    if (self.fail) throw new IOException("Connection reset");
+                    self.regions.add((long) buffer.remaining());
+                    final byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    self.received.write(bytes);
+                }
+
+                @Override
+                public void abort() {
+                    self.aborted = true;
+                }
+
+                @Override
+                public @NotNull TransportResponse response() {
+                    self.responded = true;
+                    return TestResponse.of(201);
+                }
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,140 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.transport.TestResponse;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves a byte array, optionally honoring {@code Range: bytes=a-b} and {@code Range: bytes=a-}. Records the
+ * {@code Range} header of each request.
+ */
+final class RangeTransport implements Transport {
+
+    private final byte[] data;
+    private final boolean ranged;
+    private int breakAfter;
+    private String etag;
+    final List<String> ranges = new ArrayList<>();
+    private int open = 0;
+    int maxOpen = 0;
+    RangeTransport(byte @NotNull [] data, boolean ranged) {
+        this.data = data;
+        this.ranged = ranged;
+        this.breakAfter = -1;
+        this.etag = null;
+    }
+
+    /**
+     * Makes the body of the next response fail after the given number of bytes.
+     */
+    @Contract("_ -> this")
+    @NotNull RangeTransport breakAfter(int breakAfter) {
+        this.breakAfter = breakAfter;
+        return this;
+    }
+
+    /**
+     * Sets the entity tag of the data. Ranges are then only honored if the {@code If-Range} header, when present,
+     * matches it.
+     */
+    @Contract("_ -> this")
+    @NotNull RangeTransport etag(@Nullable String etag) {
+        this.etag = etag;
+        return this;
+    }
+
+    @Override
+    public @NotNull TransportResponse send(@NotNull TransportRequest request) {
+        final String range = request.header("Range");
+        final int breakAfter;
+        synchronized (this) {
+            this.ranges.add(range);
+            this.maxOpen = Math.max(this.maxOpen, ++this.open);
+            breakAfter = this.breakAfter;
+            this.breakAfter = -1;
+        }
+
+        int start = 0;
+        int end = this.data.length - 1;
+        final String ifRange = request.header("If-Range");
+        final boolean partial = this.ranged && range != null && (ifRange == null || ifRange.equals(this.etag));
+        if (partial) {
+            final String spec = range.substring(6);
+            final int dash = spec.indexOf('-');
+            start = Integer.parseInt(spec.substring(0, dash));
+            if (dash < spec.length() - 1) end = Math.min(end, Integer.parseInt(spec.substring(dash + 1)));
+        }
+        if (partial && start >= this.data.length) return response(416, "bytes */" + this.data.length, this.etag, new byte[0], 0, 0, -1);
+
+        final int length = end - start + 1;
+        return response(
+                partial ? 206 : 200,
+                partial ? "bytes " + start + "-" + end + "/" + this.data.length : null,
+                this.etag,
+                this.data,
+                start,
+                length,
+                breakAfter
+        );
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    //
+
+    private @NotNull TransportResponse response(
+            int status,
+            @Nullable String contentRange,
+            @Nullable String etag,
+            byte @NotNull [] data,
+            int offset,
+            int length,
+            int breakAfter
+    ) {
+        final InputStream body = new ByteArrayInputStream(data, offset, length) {
+            private int read = 0;
+
+            @Override
+            public synchronized int read(byte @NotNull [] b, int off, int len) {
+                if (breakAfter != -1 && this.read >= breakAfter) throw new UncheckedIOException(new IOException("Connection reset"));
+                if (breakAfter != -1) len = Math.min(len, breakAfter - this.read);
+                int n = super.read(b, off, len);
+                if (n > 0) this.read += n;
+                return n;
+            }
+        };
+        final Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Length", Integer.toString(length));
+        if (contentRange != null) headers.put("Content-Range", contentRange);
+        if (etag != null) headers.put("ETag", etag);
+        return TestResponse.of(status, headers, new FilterInputStream(body) {
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) throws IOException {
+                try {
+                    return super.read(b, off, len);
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }, () -> {
+            synchronized (this) {
+                this.open--;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,153 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
+import io.github.wasabithumb.yandisk4j.transfer.Transfer;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResumableDownloadTest {
+
+    @Test
+    void retry() throws IOException, InterruptedException {
+        final byte[] data = new byte[100000];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, true).breakAfter(30000);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        Transfer t = new NodeDownloader("https://example.com/file", "GET", transport).readAsync(file);
+        t.block();
+
+        assertNull(t.error());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertFalse(new File(file.getPath() + ".part").exists());
+        assertEquals(Arrays.asList(null, "bytes=30000-"), transport.ranges);
+        assertEquals(data.length, t.transferred());
+        assertEquals(data.length, t.total());
+    }
+
+    @Test
+    void resume() throws IOException {
+        final byte[] data = new byte[50000];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, true).etag("\"a\"");
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        Files.write(dir.resolve("out.bin.part"), Arrays.copyOf(data, 12345));
+        new ResumableDownload.PartTag(data.length, "\"a\"").write(dir.resolve("out.bin.part.tag").toFile());
+        new NodeDownloader("https://example.com/file", "GET", transport).read(file);
+
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(List.of("bytes=12345-"), transport.ranges);
+        assertFalse(new File(file.getPath() + ".part.tag").exists());
+    }
+
+    @Test
+    void changed() throws IOException {
+        final byte[] data = new byte[50000];
+        ThreadLocalRandom.current().nextBytes(data);
+        final byte[] stale = new byte[12345];
+        ThreadLocalRandom.current().nextBytes(stale);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        File tag = dir.resolve("out.bin.part.tag").toFile();
+
+        // Different entity tag; server ignores the range
+        RangeTransport transport = new RangeTransport(data, true).etag("\"b\"");
+        Files.write(dir.resolve("out.bin.part"), stale);
+        new ResumableDownload.PartTag(data.length, "\"a\"").write(tag);
+        new NodeDownloader("https://example.com/file", "GET", transport).read(file);
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(List.of("bytes=12345-"), transport.ranges);
+
+        // Different length
+        transport = new RangeTransport(data, true);
+        Files.write(dir.resolve("out.bin.part"), stale);
+        new ResumableDownload.PartTag(data.length + 1, null).write(tag);
+        new NodeDownloader("https://example.com/file", "GET", transport).read(file);
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(Arrays.asList("bytes=12345-", null), transport.ranges);
+        assertEquals(1, transport.maxOpen);
+
+        // No tag
+        transport = new RangeTransport(data, true);
+        Files.write(dir.resolve("out.bin.part"), stale);
+        new NodeDownloader("https://example.com/file", "GET", transport).read(file);
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(Collections.singletonList(null), transport.ranges);
+    }
+
+    @Test
+    void restart() throws IOException, InterruptedException {
+        final byte[] data = new byte[100000];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, false).breakAfter(30000);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        Transfer t = new NodeDownloader("https://example.com/file", "GET", transport).readAsync(file);
+        t.block();
+
+        assertNull(t.error());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(Arrays.asList(null, "bytes=30000-"), transport.ranges);
+        assertEquals(data.length, t.transferred());
+    }
+
+    @Test
+    void retryingTransport() throws IOException {
+        final AtomicInteger sent = new AtomicInteger(0);
+        Transport transport = new Transport() {
+            @Override
+            public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+                sent.incrementAndGet();
+                throw new ConnectException("Connection refused");
+            }
+
+            @Override
+            public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public boolean isRetrying() {
+                return true;
+            }
+        };
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        NodeDownloader downloader = new NodeDownloader("https://example.com/file", "GET", transport);
+        assertThrows(YanDiskIOException.class, () -> downloader.read(file));
+        assertEquals(1, sent.get());
+    }
+
+    @Test
+    void contentRange() {
+        assertArrayEquals(new long[] { 100L, 199L, 1000L }, DownloadSupport.parseContentRange("bytes 100-199/1000"));
+        assertArrayEquals(new long[] { -1L, -1L, 1000L }, DownloadSupport.parseContentRange("bytes */1000"));
+        assertArrayEquals(new long[] { 0L, 9L, -1L }, DownloadSupport.parseContentRange("bytes 0-9/*"));
+        assertNull(DownloadSupport.parseContentRange("items 0-9/10"));
+        assertNull(DownloadSupport.parseContentRange(null));
+    }
+
+}
@@ -0,0 +1,155 @@
+package io.github.wasabithumb.yandisk4j.node.accessor;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskIOException;
+import io.github.wasabithumb.yandisk4j.transfer.Transfer;
+import io.github.wasabithumb.yandisk4j.transfer.TransferService;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedDownloadTest {
+
+    @Test
+    void segments() throws IOException, InterruptedException {
+        final byte[] data = new byte[(4 << 20) + 12345];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, true);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        Transfer t = new NodeDownloader("https://example.com/file", "GET", transport)
+                .segments(4)
+                .readAsync(file);
+        t.block();
+
+        assertNull(t.error());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertFalse(new File(file.getPath() + ".part").exists());
+        assertEquals(4, transport.ranges.size());
+        assertEquals("bytes=0-", transport.ranges.get(0));
+        assertEquals(data.length, t.transferred());
+        assertEquals(data.length, t.total());
+    }
+
+    @Test
+    void fallback() throws IOException {
+        final byte[] data = new byte[(2 << 20) + 1];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, false);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        new NodeDownloader("https://example.com/file", "GET", transport)
+                .segments(4)
+                .read(file);
+
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(List.of("bytes=0-"), transport.ranges);
+    }
+
+    @Test
+    void empty() throws IOException {
+        RangeTransport transport = new RangeTransport(new byte[0], true);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        new NodeDownloader("https://example.com/file", "GET", transport)
+                .segments(4)
+                .read(file);
+
+        assertTrue(file.isFile());
+        assertEquals(0L, file.length());
+        assertFalse(new File(file.getPath() + ".part").exists());
+    }
+
+    @Test
+    void failure() throws IOException {
+        final byte[] data = new byte[(2 << 20) + 1];
+        RangeTransport transport = new RangeTransport(data, true).breakAfter(1000);
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        File tag = dir.resolve("out.bin.part.tag").toFile();
+        new ResumableDownload.PartTag(data.length, null).write(tag);
+        NodeDownloader downloader = new NodeDownloader("https://example.com/file", "GET", transport)
+                .segments(2)
+                .maxAttempts(1);
+
+        assertThrows(YanDiskIOException.class, () -> downloader.read(file));
+        assertFalse(file.exists());
+        assertFalse(new File(file.getPath() + ".part").exists());
+        assertFalse(tag.exists());
+    }
+
+    @Test
+    void singleThread() throws IOException, InterruptedException {
+        final byte[] data = new byte[(4 << 20) + 12345];
+        ThreadLocalRandom.current().nextBytes(data);
+        RangeTransport transport = new RangeTransport(data, true);
+        TransferService service = TransferService.builder()
+                .maxConcurrency(1)
+                .build();
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        Transfer t = new NodeDownloader("https://example.com/file", "GET", transport)
+                .service(service)
+                .segments(4)
+                .readAsync(file);
+        t.block();
+
+        assertNull(t.error());
+        assertArrayEquals(data, Files.readAllBytes(file.toPath()));
+        assertEquals(4, transport.ranges.size());
+        assertEquals(1, transport.maxOpen);
+    }
+
+    @Test
+    void changed() throws IOException {
+        final byte[] data = new byte[(2 << 20) + 1];
+        RangeTransport backing = new RangeTransport(data, true).etag("\"a\"");
+        Transport transport = new Transport() {
+            @Override
+            public @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+                TransportResponse response = backing.send(request);
+                backing.etag("\"b\"");
+                return response;
+            }
+
+            @Override
+            public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        Path dir = Files.createTempDirectory("yandisk4j");
+        File file = dir.resolve("out.bin").toFile();
+        NodeDownloader downloader = new NodeDownloader("https://example.com/file", "GET", transport)
+                .segments(2);
+
+        YanDiskIOException e = assertThrows(YanDiskIOException.class, () -> downloader.read(file));
+        assertInstanceOf(DownloadSupport.ChangedException.class, e.getCause());
+        assertEquals(2, backing.ranges.size());
+        assertFalse(file.exists());
+        assertFalse(new File(file.getPath() + ".part").exists());
+    }
+
+    @Test
+    void validation() {
+        NodeDownloader downloader = new NodeDownloader("https://example.com/file", "GET", new RangeTransport(new byte[0], false));
+        assertThrows(IllegalArgumentException.class, () -> downloader.segments(0));
+    }
+
+}
@@ -0,0 +1,135 @@
+package io.github.wasabithumb.yandisk4j.node.walk;
+
+import io.github.wasabithumb.yandisk4j.YanDisk;
+import io.github.wasabithumb.yandisk4j.node.Node;
+import io.github.wasabithumb.yandisk4j.transport.TestResponse;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeWalkerTest {
+
+    private static final String ROOT = "disk:/root";
+
+    @Test
+    void visitor() {
+        TreeTransport transport = new TreeTransport();
+        YanDisk disk = YanDisk.yanDisk("token", transport);
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+
+        disk.walk(ROOT, options(4).build(), (Node node) -> {
+            assertTrue(visited.add(node.path().toString()), "Visited twice: " + node.path());
+        });
+
+        assertEquals(expected(ROOT, Integer.MAX_VALUE), visited);
+        assertTrue(transport.peak.get() <= 4, "More than 4 requests in flight");
+    }
+
+    @Test
+    void stream() {
+        YanDisk disk = YanDisk.yanDisk("token", new TreeTransport());
+        Set<String> found;
+        try (Stream<Node> stream = disk.walk(ROOT, options(3).maxDepth(2).bufferSize(4).build())) {
+            found = stream.map((Node n) -> n.path().toString()).collect(Collectors.toSet());
+        }
+        assertEquals(expected(ROOT, 2), found);
+    }
+
+    //
+
+    private static @NotNull WalkOptions.Builder options(int maxConcurrency) {
+        return WalkOptions.builder()
+                .maxConcurrency(maxConcurrency)
+                .pageSize(5);
+    }
+
+    private static int depth(@NotNull String path) {
+        return path.length() - path.replace("/", "").length();
+    }
+
+    /** 3 directories and 12 files in each directory, stopping at depth 3 */
+    private static @NotNull List<String> children(@NotNull String path) {
+        List<String> ret = new ArrayList<>();
+        if (depth(path) < 3) {
+            for (int i=0; i < 3; i++) ret.add(path + "/d" + i);
+        }
+        for (int i=0; i < 12; i++) ret.add(path + "/f" + i + ".txt");
+        return ret;
+    }
+
+    private static @NotNull Set<String> expected(@NotNull String root, int maxDepth) {
+        Set<String> ret = new HashSet<>();
+        for (String child : children(root)) {
+            ret.add(child);
+            if (!child.endsWith(".txt") && maxDepth > 1) ret.addAll(expected(child, maxDepth - 1));
+        }
+        return ret;
+    }
+
+    private static @NotNull String nodeJson(@NotNull String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        String common = "\"path\":\"" + path + "\",\"name\":\"" + name + "\"," +
+                "\"created\":\"2024-01-01T00:00:00+00:00\",\"modified\":\"2024-01-01T00:00:00+00:00\"";
+        if (name.endsWith(".txt")) {
+            return "{" + common + ",\"type\":\"file\",\"md5\":\"abc\",\"mime_type\":\"text/plain\",\"size\":1}";
+        } else {
+            return "{" + common + ",\"type\":\"dir\"}";
+        }
+    }
+
+    //
+
+    private static final class TreeTransport implements Transport {
+
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger peak = new AtomicInteger(0);
+
+        @Override
+        public @NotNull TransportResponse send(@NotNull TransportRequest request) {
+            this.peak.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(2L);
+                Map<String, String> query = new HashMap<>();
+                for (String part : request.uri().getRawQuery().split("&")) {
+                    int eq = part.indexOf('=');
+                    query.put(part.substring(0, eq), URLDecoder.decode(part.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+                List<String> children = children(query.get("path"));
+                int offset = Integer.parseInt(query.get("offset"));
+                int limit = Integer.parseInt(query.get("limit"));
+
+                StringBuilder sb = new StringBuilder("{\"type\":\"dir\",\"_embedded\":{\"items\":[");
+                for (int i=offset; i < Math.min(offset + limit, children.size()); i++) {
+                    if (i != offset) sb.append(',');
+                    sb.append(nodeJson(children.get(i)));
+                }
+                sb.append("]}}");
+                return TestResponse.of(200, sb.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            } finally {
+                this.inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import io.github.wasabithumb.yandisk4j.except.YanDiskOperationException;
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeAwaiter;
+import io.github.wasabithumb.yandisk4j.transport.TestResponse;
+import io.github.wasabithumb.yandisk4j.transport.Transport;
+import io.github.wasabithumb.yandisk4j.transport.TransportRequest;
+import io.github.wasabithumb.yandisk4j.transport.TransportResponse;
+import io.github.wasabithumb.yandisk4j.transport.TransportUpload;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveOperationTest {
+
+    @Test
+    void callbackFailure() throws Exception {
+        GatedTransport transport = new GatedTransport("{\"status\":\"success\"}");
+        Operation op = new LiveOperation(new NodeAwaiter("https://example.com", "GET", transport));
+
+        AtomicBoolean second = new AtomicBoolean(false);
+        op.watch((Operation o) -> {
+            throw new IllegalStateException("Callback failure");
+        });
+        op.watch((Operation o) -> second.set(true));
+        transport.release.countDown();
+
+        assertEquals(OperationStatus.SUCCESS, op.toCompletableFuture().get(5L, TimeUnit.SECONDS));
+        assertEquals(OperationStatus.SUCCESS, op.status());
+        for (int i=0; i < 50 && !second.get(); i++) TimeUnit.MILLISECONDS.sleep(10L);
+        assertTrue(second.get());
+    }
+
+    @Test
+    void malformed() {
+        for (String body : new String[] { "{\"status\":", "" }) {
+            GatedTransport transport = new GatedTransport(body);
+            transport.release.countDown();
+            Operation op = new LiveOperation(new NodeAwaiter("https://example.com", "GET", transport));
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> op.toCompletableFuture().get(5L, TimeUnit.SECONDS));
+            assertInstanceOf(YanDiskOperationException.class, e.getCause());
+            assertThrows(YanDiskOperationException.class, op::status);
+        }
+    }
+
+    //
+
+    /**
+     * Answers every request with the given body, once released.
+     */
+    private static final class GatedTransport implements Transport {
+
+        private final byte[] body;
+        final CountDownLatch release = new CountDownLatch(1);
+        GatedTransport(@NotNull String body) {
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public @NotNull TransportResponse send(@NotNull TransportRequest request) throws InterruptedIOException {
+            try {
+                this.release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            return TestResponse.of(200, this.body);
+        }
+
+        @Override
+        public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
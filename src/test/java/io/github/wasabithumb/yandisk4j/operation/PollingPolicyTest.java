@@ -0,0 +1,36 @@
+package io.github.wasabithumb.yandisk4j.operation;
+
+import io.github.wasabithumb.yandisk4j.node.accessor.NodeAwaiter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PollingPolicyTest {
+
+    @Test
+    void backoff() {
+        PollingPolicy policy = PollingPolicy.backoff(100L, 1000L, 2d, 0.25d);
+        long[] ceilings = { 100L, 200L, 400L, 800L, 1000L, 1000L };
+        for (int i=0; i < ceilings.length; i++) {
+            long delay = policy.delay(i + 1);
+            assertTrue(delay <= ceilings[i], "Delay " + delay + " above " + ceilings[i]);
+            assertTrue(delay >= ceilings[i] * 3 / 4, "Delay " + delay + " below " + (ceilings[i] * 3 / 4));
+        }
+        assertEquals(1000L, PollingPolicy.backoff(100L, 1000L, 2d, 0d).delay(Integer.MAX_VALUE));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void refreshInterval() {
+        Operation op = new LiveOperation(new NodeAwaiter("https://example.com", "GET"));
+        assertEquals(100L, op.getRefreshInterval());
+        op.setRefreshInterval(250L);
+        assertEquals(250L, op.getRefreshInterval());
+        assertEquals(250L, op.getPollingPolicy().delay(7));
+        op.setPollingPolicy(PollingPolicy.backoff(300L, 1000L, 2d, 0.5d));
+        assertEquals(300L, op.getRefreshInterval());
+        op.setPollingPolicy((int attempt) -> 40L * attempt);
+        assertEquals(40L, op.getRefreshInterval());
+    }
+
+}
@@ -0,0 +1,93 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasicTransferTest {
+
+    @Test
+    void contention() throws InterruptedException {
+        final BasicTransfer transfer = new BasicTransfer(-1L);
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger completions = new AtomicInteger();
+        transfer.watch((Transfer t) -> {
+            calls.incrementAndGet();
+            if (t.isDone()) completions.incrementAndGet();
+        });
+
+        final int threads = 8;
+        final int updates = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] workers = new Thread[threads];
+        for (int i=0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j=0; j < updates; j++) transfer.update(3L);
+            });
+            workers[i].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+
+        assertEquals(3L * threads * updates, transfer.transferred());
+        assertEquals(threads * updates, calls.get());
+        assertFalse(transfer.isDone());
+
+        transfer.update(-1L);
+        transfer.update(-1L);
+        assertTrue(transfer.isDone());
+        assertEquals(1, completions.get());
+        assertEquals(threads * updates + 1, calls.get());
+
+        // Callbacks added after completion are discarded
+        transfer.watch((Transfer t) -> fail("Called after completion"));
+        transfer.update(1L);
+    }
+
+    @Test
+    void completionAfterProgress() throws InterruptedException {
+        final BasicTransfer transfer = new BasicTransfer(-1L);
+        final CountDownLatch delivering = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> events = new CopyOnWriteArrayList<>();
+        transfer.watch((Transfer t) -> {
+            if (t.isDone()) {
+                events.add("done");
+                return;
+            }
+            delivering.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            events.add("progress");
+        });
+
+        // Complete while a progress delivery is under way on another thread
+        final Thread worker = new Thread(() -> transfer.update(1L));
+        worker.start();
+        assertTrue(delivering.await(5L, TimeUnit.SECONDS));
+        transfer.update(-1L);
+        assertTrue(transfer.isDone());
+        transfer.update(1L);
+        assertEquals(List.of(), events);
+
+        release.countDown();
+        worker.join();
+        assertEquals(List.of("progress", "done"), events);
+        assertEquals(2L, transfer.transferred());
+    }
+
+}
@@ -0,0 +1,76 @@
+package io.github.wasabithumb.yandisk4j.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThrottledWatcherTest {
+
+    @Test
+    void coalesce() throws InterruptedException {
+        final Transfer transfer = Transfer.create(100000L);
+        final Thread source = Thread.currentThread();
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean foreign = new AtomicBoolean(true);
+        final CountDownLatch complete = new CountDownLatch(1);
+        final AtomicInteger completions = new AtomicInteger();
+        final long[] last = new long[1];
+
+        transfer.watch((Transfer t) -> {
+            calls.incrementAndGet();
+            if (Thread.currentThread() == source) foreign.set(false);
+            try {
+                Thread.sleep(20L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (t.isDone()) {
+                last[0] = t.transferred();
+                completions.incrementAndGet();
+                complete.countDown();
+            }
+        }, 0L);
+
+        // A slow callback must not hold up the updates
+        final long start = System.nanoTime();
+        for (int i=0; i < 100000; i++) transfer.update(1L);
+        transfer.update(-1L);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1L));
+
+        assertTrue(complete.await(5L, TimeUnit.SECONDS));
+        assertTrue(foreign.get());
+        assertTrue(calls.get() < 1000);
+        assertEquals(100000L, last[0]);
+
+        Thread.sleep(50L);
+        assertEquals(1, completions.get());
+    }
+
+    @Test
+    void bytes() {
+        final Transfer transfer = Transfer.create();
+        final List<Long> seen = new ArrayList<>();
+        transfer.watch((Transfer t) -> seen.add(t.transferred()), 0L, 100L, Runnable::run);
+
+        for (int i=0; i < 50; i++) transfer.update(10L);
+        transfer.update(-1L);
+        transfer.update(-1L);
+
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L, 500L), seen);
+    }
+
+    @Test
+    void validation() {
+        final Transfer transfer = Transfer.create();
+        assertThrows(IllegalArgumentException.class, () -> transfer.watch((Transfer t) -> { }, -1L));
+        assertThrows(IllegalArgumentException.class, () -> transfer.watch((Transfer t) -> { }, 0L, -1L, Runnable::run));
+    }
+
+}
@@ -1,13 +1,21 @@
 package io.github.wasabithumb.yandisk4j.transfer;
 
+import io.github.wasabithumb.yandisk4j.except.YanDiskCancelledException;
 import io.github.wasabithumb.yandisk4j.except.YanDiskException;
+import io.github.wasabithumb.yandisk4j.except.YanDiskOperationException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class TransferServiceTest {
 
@@ -33,6 +41,165 @@ class TransferServiceTest {
         assertArrayEquals(sentinel, out);
     }
 
+    @Test
+    void priority() throws InterruptedException {
+        TransferService service = TransferService.builder()
+                .maxConcurrency(1)
+                .build();
+
+        CountDownLatch gate = new CountDownLatch(1);
+        List<TransferPriority> order = new CopyOnWriteArrayList<>();
+        Transfer blocker = service.submit((TransferContext ctx) -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }, -1L, TransferPriority.NORMAL);
+
+        Transfer[] transfers = new Transfer[3];
+        TransferPriority[] priorities = { TransferPriority.LOW, TransferPriority.NORMAL, TransferPriority.HIGH };
+        for (int i=0; i < 3; i++) {
+            final TransferPriority priority = priorities[i];
+            transfers[i] = service.submit((TransferContext ctx) -> order.add(priority), -1L, priority);
+        }
+
+        while (service.active() == 0) Thread.onSpinWait();
+        assertEquals(1, service.active());
+        assertEquals(3, service.queued());
+
+        gate.countDown();
+        blocker.block();
+        for (Transfer t : transfers) t.block();
+
+        assertEquals(List.of(TransferPriority.HIGH, TransferPriority.NORMAL, TransferPriority.LOW), order);
+        assertEquals(0, service.queued());
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        TransferService service = TransferService.builder()
+                .maxConcurrency(1)
+                .build();
+
+        // A running transfer, blocked reading a stream which only returns once closed
+        CountDownLatch closed = new CountDownLatch(1);
+        CountDownLatch reading = new CountDownLatch(1);
+        InputStream stalled = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                reading.countDown();
+                try {
+                    closed.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                throw new IOException("Stream closed");
+            }
+
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        Transfer running = service.submit(() -> stalled, ByteArrayOutputStream::new, -1L);
+
+        // A queued transfer, which must never start
+        AtomicBoolean started = new AtomicBoolean(false);
+        Transfer queued = service.submit((TransferContext ctx) -> started.set(true), -1L, TransferPriority.NORMAL);
+
+        assertTrue(reading.await(5L, TimeUnit.SECONDS));
+        assertEquals(1, service.queued());
+
+        assertTrue(queued.cancel());
+        assertTrue(queued.isDone());
+        assertInstanceOf(YanDiskCancelledException.class, queued.error());
+        assertEquals(0, service.queued());
+
+        assertTrue(running.cancel());
+        assertInstanceOf(YanDiskCancelledException.class, running.error());
+        assertEquals(0L, closed.getCount());
+        assertFalse(running.cancel());
+
+        running.block();
+        assertTrue(running.isDone());
+        assertInstanceOf(YanDiskCancelledException.class, running.error());
+        assertFalse(started.get());
+
+        // The service remains usable
+        Transfer after = service.submit((TransferContext ctx) -> ctx.advance(1L), -1L, TransferPriority.NORMAL);
+        after.block();
+        assertNull(after.error());
+        assertEquals(1L, after.transferred());
+    }
+
+    @Test
+    void cancelWaitsForJob() throws InterruptedException {
+        TransferService service = new TransferService("Test");
+
+        // A job which takes a while to notice that it was cancelled
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger writes = new AtomicInteger();
+        Transfer t = service.submit((TransferContext ctx) -> {
+            started.countDown();
+            while (!ctx.isCancelled()) Thread.onSpinWait();
+            for (int i=0; i < 5; i++) {
+                try {
+                    Thread.sleep(10L);
+                } catch (InterruptedException ignored) { }
+                writes.incrementAndGet();
+            }
+        }, -1L, TransferPriority.NORMAL);
+
+        assertTrue(started.await(5L, TimeUnit.SECONDS));
+        assertTrue(t.cancel());
+        t.block();
+        final int count = writes.get();
+        Thread.sleep(100L);
+
+        assertEquals(5, count);
+        assertEquals(count, writes.get());
+        assertInstanceOf(YanDiskCancelledException.class, t.error());
+    }
+
+    @Test
+    void buffers() throws InterruptedException {
+        TransferService service = TransferService.builder()
+                .maxConcurrency(1)
+                .bufferSize(12345)
+                .build();
+        assertEquals(12345, service.bufferSize());
+
+        final ByteBuffer[] leased = new ByteBuffer[2];
+        for (int i=0; i < 2; i++) {
+            final int index = i;
+            Transfer t = service.submit((TransferContext ctx) -> {
+                assertSame(ctx.buffer(), ctx.buffer());
+                leased[index] = ctx.buffer();
+            }, -1L, TransferPriority.NORMAL);
+            t.block();
+            assertNull(t.error());
+        }
+
+        assertEquals(12345, leased[0].capacity());
+        assertSame(leased[0], leased[1]);
+        assertThrows(IllegalArgumentException.class, () -> TransferService.builder().bufferSize(0));
+    }
+
+    @Test
+    void jobFailure() throws InterruptedException {
+        TransferService service = TransferService.builder()
+                .maxConcurrency(1)
+                .build();
+
+        Transfer t = service.submit((TransferContext ctx) -> {
+            throw new IllegalStateException("Job failure");
+        }, -1L, TransferPriority.NORMAL);
+        t.block();
+        assertInstanceOf(YanDiskOperationException.class, t.error());
+        assertInstanceOf(IllegalStateException.class, t.error().getCause());
+    }
+
     private void report(Transfer t) {
         if (t.isDone()) {
             YanDiskException error = t.error();
@@ -0,0 +1,143 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final TransportRequest API = TransportRequest.builder("https://cloud-api.yandex.net/v1/disk/resources?path=a").build();
+
+    @Test
+    void trip() throws IOException {
+        StatusTransport backing = new StatusTransport(503);
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .minimumCalls(4)
+                .window(8)
+                .build();
+        Transport transport = backing.withCircuitBreaker(breaker);
+
+        backing.status = 200;
+        transport.send(API).close();
+        transport.send(API).close();
+        backing.status = 503;
+        transport.send(API).close();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        backing.fail = true;
+        assertThrows(ConnectException.class, () -> transport.send(API));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(4, backing.sent);
+
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> transport.send(API));
+        assertTrue(e.remaining() > 0L);
+        assertEquals(4, backing.sent);
+
+        CompletionException ce = assertThrows(CompletionException.class, () -> transport.sendAsync(API).join());
+        assertInstanceOf(CircuitOpenException.class, ce.getCause());
+        assertEquals(4, backing.sent);
+    }
+
+    @Test
+    void probe() throws IOException, InterruptedException {
+        StatusTransport backing = new StatusTransport(500);
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .minimumCalls(1)
+                .window(1)
+                .openDuration(20L)
+                .probes(2)
+                .build();
+        Transport transport = backing.withCircuitBreaker(breaker);
+
+        transport.send(API).close();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        TimeUnit.MILLISECONDS.sleep(30L);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        // A failed probe opens the breaker again
+        transport.send(API).close();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        TimeUnit.MILLISECONDS.sleep(30L);
+
+        // Only the configured number of probes may be in flight
+        backing.status = 200;
+        TransportResponse first = transport.send(API);
+        TransportResponse second = transport.send(API);
+        first.close();
+        second.close();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(4, backing.sent);
+    }
+
+    @Test
+    void probeLimit() throws IOException, InterruptedException {
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .minimumCalls(1)
+                .window(1)
+                .openDuration(0L)
+                .probes(1)
+                .build();
+        breaker.record(breaker.acquire(), false);
+
+        long ticket = breaker.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        CircuitOpenException e = assertThrows(CircuitOpenException.class, breaker::acquire);
+        assertEquals(0L, e.remaining());
+
+        // Releasing a probe without an outcome lets another through
+        breaker.release(ticket);
+        breaker.record(breaker.acquire(), true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void otherHosts() throws IOException {
+        StatusTransport backing = new StatusTransport(503);
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .minimumCalls(1)
+                .window(1)
+                .build();
+        Transport transport = backing.withCircuitBreaker(breaker);
+
+        TransportRequest download = TransportRequest.builder("https://downloader.disk.yandex.ru/disk/abc").build();
+        transport.send(download).close();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        transport.send(API).close();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        transport.send(download).close();
+        assertEquals(3, backing.sent);
+    }
+
+    @Test
+    void noRetry() throws IOException {
+        StatusTransport backing = new StatusTransport(503);
+        CircuitBreaker breaker = CircuitBreaker.builder()
+                .minimumCalls(1)
+                .window(1)
+                .build();
+        Transport transport = backing.withCircuitBreaker(breaker).withRetry(RetryPolicy.builder()
+                .backoff(1L, 1L, 1d, 0d)
+                .build());
+
+        // The failure opens the breaker, which then refuses the retry
+        assertThrows(CircuitOpenException.class, () -> transport.send(API));
+        assertEquals(1, backing.sent);
+        assertThrows(CircuitOpenException.class, () -> transport.send(API));
+        assertEquals(1, backing.sent);
+    }
+
+    @Test
+    void validate() {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().threshold(0d));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().threshold(1.5d));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().probes(0));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().openDuration(-1L));
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreaker.builder().window(5).minimumCalls(6).build());
+    }
+
+}
@@ -0,0 +1,192 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineTest {
+
+    private static final String API = "https://cloud-api.yandex.net/v1/disk/resources?path=a";
+
+    @Test
+    void retry() throws IOException {
+        StatusTransport backing = new StatusTransport(503);
+        Transport transport = backing.withRetry(RetryPolicy.builder()
+                .maxAttempts(10)
+                .backoff(100L, 100L, 1d, 0d)
+                .build());
+
+        long start = System.nanoTime();
+        try (TransportResponse response = transport.send(request(API, 250L))) {
+            assertEquals(503, response.status());
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Retries stop once the next one would pass the deadline
+        assertTrue(backing.sent == 2 || backing.sent == 3, "Sent " + backing.sent + " requests");
+        assertTrue(elapsed < 250L, "Took " + elapsed + "ms");
+    }
+
+    @Test
+    void rateLimit() throws IOException {
+        Transport transport = new StatusTransport(503).withRateLimit(RateLimiter.builder()
+                .limit(1d, 1)
+                .build());
+
+        transport.send(request(API, 1000L)).close();
+        assertThrows(DeadlineExceededException.class, () -> transport.send(request(API, 100L)));
+        CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> transport.sendAsync(request(API, 100L)).join()
+        );
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+    }
+
+    @Test
+    void passed() {
+        TransportRequest request = TransportRequest.builder(API).deadline(Instant.now().minusSeconds(1L)).build();
+        assertTrue(request.remaining() <= 0L);
+        assertThrows(DeadlineExceededException.class, () -> HttpClientTransport.builder().build().send(request));
+        assertThrows(DeadlineExceededException.class, () -> Transport.urlConnection().send(request));
+        assertEquals(Long.MAX_VALUE, TransportRequest.builder(API).build().remaining());
+    }
+
+    @Test
+    void stall() throws IOException {
+        try (StallingServer server = new StallingServer()) {
+            final String uri = "http://127.0.0.1:" + server.port() + "/";
+
+            Transport client = HttpClientTransport.builder().readTimeout(200L).build();
+            assertThrows(HttpTimeoutException.class, () -> client.send(request(uri, 0L)));
+            assertThrows(DeadlineExceededException.class, () -> client.send(request(uri, 200L)));
+            CompletionException e = assertThrows(
+                    CompletionException.class,
+                    () -> client.sendAsync(request(uri, 200L)).join()
+            );
+            assertInstanceOf(DeadlineExceededException.class, e.getCause());
+
+            Transport connection = Transport.urlConnection(1000, 200);
+            assertThrows(SocketTimeoutException.class, () -> connection.send(request(uri, 0L)));
+            assertThrows(DeadlineExceededException.class, () -> connection.send(request(uri, 200L)));
+        }
+    }
+
+    @Test
+    void stallBody() throws IOException {
+        try (StallingServer server = new StallingServer("HTTP/1.1 200 OK\r\nContent-Length: 100\r\n\r\n0123456789")) {
+            final String uri = "http://127.0.0.1:" + server.port() + "/";
+
+            Transport client = HttpClientTransport.builder().readTimeout(200L).build();
+            try (TransportResponse response = client.send(request(uri, 0L))) {
+                assertEquals(200, response.status());
+                assertThrows(HttpTimeoutException.class, () -> response.body().readAllBytes());
+            }
+            try (TransportResponse response = client.send(request(uri, 150L))) {
+                assertThrows(DeadlineExceededException.class, () -> response.body().readAllBytes());
+            }
+            CompletionException e = assertThrows(
+                    CompletionException.class,
+                    () -> client.sendAsync(request(uri, 0L)).join()
+            );
+            assertInstanceOf(HttpTimeoutException.class, e.getCause());
+
+            Transport connection = Transport.urlConnection(1000, 200);
+            try (TransportResponse response = connection.send(request(uri, 0L))) {
+                assertThrows(SocketTimeoutException.class, () -> response.body().readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void stallUpload() throws IOException {
+        try (StallingServer server = new StallingServer()) {
+            final String uri = "http://127.0.0.1:" + server.port() + "/";
+
+            Transport client = HttpClientTransport.builder().readTimeout(200L).build();
+            TransportUpload upload = client.upload(TransportRequest.builder(uri).method("PUT").build(), 4L);
+            upload.body().write(new byte[4]);
+            long start = System.nanoTime();
+            assertThrows(HttpTimeoutException.class, upload::response);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsed < 2000L, "Took " + elapsed + "ms");
+        }
+    }
+
+    @Test
+    void validate() {
+        assertThrows(IllegalArgumentException.class, () -> HttpClientTransport.builder().connectTimeout(-1L));
+        assertThrows(IllegalArgumentException.class, () -> HttpClientTransport.builder().readTimeout(-1L));
+        assertThrows(IllegalArgumentException.class, () -> Transport.urlConnection(-1, 0));
+    }
+
+    //
+
+    private static @NotNull TransportRequest request(@NotNull String uri, long timeout) {
+        TransportRequest.Builder builder = TransportRequest.builder(uri);
+        if (timeout != 0L) builder.deadline(Instant.now().plusMillis(timeout));
+        return builder.build();
+    }
+
+    /**
+     * Accepts connections, writes the given prefix of a response (if any) and then stalls.
+     */
+    private static final class StallingServer implements AutoCloseable {
+
+        private final ServerSocket socket;
+        private final List<Socket> accepted;
+        private final Thread thread;
+        StallingServer(@Nullable String prefix) throws IOException {
+            this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            this.accepted = new ArrayList<>();
+            this.thread = new Thread(() -> {
+                try {
+                    while (true) {
+                        Socket s = this.socket.accept();
+                        synchronized (this.accepted) {
+                            this.accepted.add(s);
+                        }
+                        if (prefix != null) {
+                            s.getOutputStream().write(prefix.getBytes(StandardCharsets.US_ASCII));
+                            s.getOutputStream().flush();
+                        }
+                    }
+                } catch (IOException ignored) { }
+            });
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        StallingServer() throws IOException {
+            this(null);
+        }
+
+        int port() {
+            return this.socket.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.socket.close();
+            synchronized (this.accepted) {
+                for (Socket s : this.accepted) s.close();
+            }
+        }
+
+    }
+
+}
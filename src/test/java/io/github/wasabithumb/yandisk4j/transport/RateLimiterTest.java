@@ -0,0 +1,104 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final String API = "https://cloud-api.yandex.net/v1/disk";
+
+    @Test
+    void endpoints() {
+        assertEquals(RateLimiter.Endpoint.METADATA, RateLimiter.Endpoint.of(URI.create(API + "/resources?path=%2F")));
+        assertEquals(RateLimiter.Endpoint.METADATA, RateLimiter.Endpoint.of(URI.create(API + "/resources/files?limit=10")));
+        assertEquals(RateLimiter.Endpoint.UPLOAD_LINK, RateLimiter.Endpoint.of(URI.create(API + "/resources/upload?path=a")));
+        assertEquals(RateLimiter.Endpoint.DOWNLOAD_LINK, RateLimiter.Endpoint.of(URI.create(API + "/resources/download?path=a")));
+        assertEquals(RateLimiter.Endpoint.STATUS, RateLimiter.Endpoint.of(URI.create(API + "/operations/abc")));
+        assertNull(RateLimiter.Endpoint.of(URI.create("https://downloader.disk.yandex.ru/disk/abc")));
+    }
+
+    @Test
+    void pace() throws IOException {
+        StatusTransport backing = new StatusTransport(200);
+        Transport transport = backing.withRateLimit(RateLimiter.builder()
+                .limit(RateLimiter.Endpoint.METADATA, 50d, 2)
+                .build());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 7; i++) transport.send(request(API + "/resources?path=a")).close();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 2 requests from the burst, then 5 at 20ms intervals
+        assertTrue(elapsed >= 90L, "Expected at least 90ms, took " + elapsed + "ms");
+        assertEquals(7, backing.sent);
+
+        start = System.nanoTime();
+        for (int i = 0; i < 20; i++) transport.send(request(API + "/resources/upload?path=a")).close();
+        transport.send(request("https://uploader.disk.yandex.net/upload")).close();
+        elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed < 90L, "Unlimited endpoints should not wait, took " + elapsed + "ms");
+    }
+
+    @Test
+    void throttle() throws IOException {
+        StatusTransport backing = new StatusTransport(429);
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(100d, 10)
+                .recovery(60000L)
+                .build();
+        Transport transport = backing.withRateLimit(limiter);
+
+        assertEquals(100d, limiter.rate(RateLimiter.Endpoint.STATUS));
+        final long before = System.nanoTime();
+        transport.send(request(API + "/operations/abc")).close();
+        assertEquals(50d, limiter.rate(RateLimiter.Endpoint.METADATA), 1d);
+
+        // A request which was in flight when the rate was lowered does not lower it again
+        limiter.report(request(API + "/operations/abc"), backing.send(request(API + "/operations/abc")), before);
+        assertEquals(50d, limiter.rate(RateLimiter.Endpoint.METADATA), 1d);
+
+        // One sent at the lowered rate does
+        transport.send(request(API + "/operations/abc")).close();
+        assertEquals(25d, limiter.rate(RateLimiter.Endpoint.METADATA), 1d);
+
+        backing.status = 200;
+        transport.send(request(API + "/operations/abc")).close();
+        assertEquals(25d, limiter.rate(RateLimiter.Endpoint.METADATA), 1d);
+    }
+
+    @Test
+    void recover() throws IOException, InterruptedException {
+        StatusTransport backing = new StatusTransport(429);
+        RateLimiter limiter = RateLimiter.builder()
+                .limit(RateLimiter.Endpoint.METADATA, 100d, 10)
+                .recovery(50L)
+                .build();
+        backing.withRateLimit(limiter).send(request(API + "/resources?path=a")).close();
+        assertTrue(limiter.rate(RateLimiter.Endpoint.METADATA) < 100d);
+
+        TimeUnit.MILLISECONDS.sleep(60L);
+        assertEquals(100d, limiter.rate(RateLimiter.Endpoint.METADATA));
+        assertEquals(Double.POSITIVE_INFINITY, limiter.rate(RateLimiter.Endpoint.STATUS));
+    }
+
+    @Test
+    void validate() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().limit(0d, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().limit(1d, 0));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().limit(RateLimiter.Endpoint.STATUS, Double.NaN, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimiter.builder().recovery(-1L));
+    }
+
+    //
+
+    private static @NotNull TransportRequest request(@NotNull String uri) {
+        return TransportRequest.builder(uri).build();
+    }
+
+}
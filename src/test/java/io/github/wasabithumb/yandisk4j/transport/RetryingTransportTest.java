@@ -0,0 +1,161 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryingTransportTest {
+
+    private static final RetryPolicy FAST = RetryPolicy.builder()
+            .backoff(1L, 1L, 1d, 0d)
+            .build();
+
+    @Test
+    void retry() throws IOException {
+        ScriptedTransport backing = new ScriptedTransport(503, new ConnectException("Connection refused"), 200);
+        Transport transport = backing.withRetry(FAST);
+
+        try (TransportResponse response = transport.send(get())) {
+            assertEquals(200, response.status());
+            assertEquals(1, backing.closed);
+        }
+        assertEquals(3, backing.sent);
+    }
+
+    @Test
+    void retryAsync() {
+        ScriptedTransport backing = new ScriptedTransport(429, new ConnectException("Connection refused"), 200);
+        TransportResponse response = backing.withRetry(FAST).sendAsync(get()).join();
+
+        assertEquals(200, response.status());
+        assertEquals(3, backing.sent);
+    }
+
+    @Test
+    void exhausted() throws IOException {
+        ScriptedTransport backing = new ScriptedTransport(503, 503, 503, 503, 200);
+        try (TransportResponse response = backing.withRetry(FAST).send(get())) {
+            assertEquals(503, response.status());
+        }
+        assertEquals(4, backing.sent);
+    }
+
+    @Test
+    void notRetryable() throws IOException {
+        ScriptedTransport backing = new ScriptedTransport(404, 200);
+        try (TransportResponse response = backing.withRetry(FAST).send(get())) {
+            assertEquals(404, response.status());
+        }
+        assertEquals(1, backing.sent);
+    }
+
+    @Test
+    void nonIdempotent() throws IOException {
+        TransportRequest post = TransportRequest.builder("https://example.com/").method("POST").build();
+
+        ScriptedTransport backing = new ScriptedTransport(503, 201);
+        try (TransportResponse response = backing.withRetry(FAST).send(post)) {
+            assertEquals(503, response.status());
+        }
+        assertEquals(1, backing.sent);
+
+        backing = new ScriptedTransport(503, 201);
+        try (TransportResponse response = backing.withRetry(FAST.toBuilder().retryNonIdempotent(true).build()).send(post)) {
+            assertEquals(201, response.status());
+        }
+        assertEquals(2, backing.sent);
+    }
+
+    @Test
+    void retryAfter() throws IOException {
+        ScriptedTransport backing = new ScriptedTransport(503, 200);
+        backing.retryAfter = "3600";
+        try (TransportResponse response = backing.withRetry(FAST).send(get())) {
+            assertEquals(503, response.status());
+        }
+        assertEquals(1, backing.sent);
+
+        backing = new ScriptedTransport(503, 200);
+        backing.retryAfter = "0";
+        try (TransportResponse response = backing.withRetry(FAST).send(get())) {
+            assertEquals(200, response.status());
+        }
+        assertEquals(2, backing.sent);
+    }
+
+    @Test
+    void budget() throws IOException {
+        ScriptedTransport backing = new ScriptedTransport(503, 503, 503, 200, 503, 200);
+        Transport transport = backing.withRetry(FAST.toBuilder().budget(0d, 2).build());
+
+        try (TransportResponse response = transport.send(get())) {
+            assertEquals(503, response.status());
+        }
+        assertEquals(3, backing.sent);
+        try (TransportResponse response = transport.send(get())) {
+            assertEquals(200, response.status());
+        }
+        try (TransportResponse response = transport.send(get())) {
+            assertEquals(503, response.status());
+        }
+        assertEquals(5, backing.sent);
+    }
+
+    @Test
+    void validate() {
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().maxAttempts(0));
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().backoff(10L, 5L, 2d, 0d));
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().backoff(1L, 5L, 0.5d, 0d));
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().budget(2d, 1));
+    }
+
+    //
+
+    private static @NotNull TransportRequest get() {
+        return TransportRequest.builder("https://example.com/").build();
+    }
+
+    /**
+     * Responds with the given statuses or throws the given exceptions, in order.
+     */
+    private static final class ScriptedTransport implements Transport {
+
+        private final Deque<Object> script;
+        String retryAfter = null;
+        int sent = 0;
+        int closed = 0;
+        ScriptedTransport(Object @NotNull ... script) {
+            this.script = new ArrayDeque<>(List.of(script));
+        }
+
+        @Override
+        public synchronized @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+            this.sent++;
+            Object next = this.script.removeFirst();
+            if (next instanceof IOException e) throw e;
+            final int status = (Integer) next;
+            final Map<String, String> headers = this.retryAfter == null ? Map.of() : Map.of("Retry-After", this.retryAfter);
+            return TestResponse.of(status, headers, InputStream.nullInputStream(), () -> {
+                synchronized (this) {
+                    this.closed++;
+                }
+            });
+        }
+
+        @Override
+        public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.ConnectException;
+
+/**
+ * Answers every request with an empty body and the current {@link #status}, or refuses the connection while
+ * {@link #fail} is set. Counts the requests it is sent.
+ */
+final class StatusTransport implements Transport {
+
+    volatile int status;
+    volatile boolean fail = false;
+    int sent = 0;
+    StatusTransport(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public synchronized @NotNull TransportResponse send(@NotNull TransportRequest request) throws IOException {
+        this.sent++;
+        if (this.fail) throw new ConnectException("Connection refused");
+        return TestResponse.of(this.status);
+    }
+
+    @Override
+    public @NotNull TransportUpload upload(@NotNull TransportRequest request, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+}
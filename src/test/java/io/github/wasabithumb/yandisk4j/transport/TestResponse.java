@@ -0,0 +1,87 @@
+package io.github.wasabithumb.yandisk4j.transport;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Builds the {@link TransportResponse responses} returned by the transports which tests script. Header names are
+ * looked up without regard to case.
+ */
+public final class TestResponse {
+
+    private TestResponse() { }
+
+    //
+
+    /**
+     * A response with no headers and an empty body.
+     */
+    public static @NotNull TransportResponse of(int status) {
+        return of(status, Map.of(), new byte[0]);
+    }
+
+    /**
+     * A response with no headers and the given body.
+     */
+    public static @NotNull TransportResponse of(int status, byte @NotNull [] body) {
+        return of(status, Map.of(), body);
+    }
+
+    /**
+     * A response with the given headers and body.
+     */
+    public static @NotNull TransportResponse of(int status, @NotNull Map<String, String> headers, byte @NotNull [] body) {
+        return new BufferedResponse(status, lookup(headers), body);
+    }
+
+    /**
+     * A response which reads its body from the given stream, and runs the given action the first time it is closed.
+     */
+    public static @NotNull TransportResponse of(
+            int status,
+            @NotNull Map<String, String> headers,
+            @NotNull InputStream body,
+            @NotNull Runnable onClose
+    ) {
+        final Function<String, String> lookup = lookup(headers);
+        return new TransportResponse() {
+            private boolean closed = false;
+
+            @Override
+            public int status() {
+                return status;
+            }
+
+            @Override
+            public @Nullable String header(@NotNull String name) {
+                return lookup.apply(name);
+            }
+
+            @Override
+            public @NotNull InputStream body() {
+                return body;
+            }
+
+            @Override
+            public void close() {
+                synchronized (this) {
+                    if (this.closed) return;
+                    this.closed = true;
+                }
+                onClose.run();
+            }
+        };
+    }
+
+    private static @NotNull Function<String, String> lookup(@NotNull Map<String, String> headers) {
+        final Map<String, String> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        map.putAll(headers);
+        return map::get;
+    }
+
+}
@@ -0,0 +1,52 @@
+package io.github.wasabithumb.yandisk4j.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginatedResultTest {
+
+    private static final int COUNT = 1003;
+
+    private static List<Integer> page(int limit, int offset) {
+        List<Integer> ret = new ArrayList<>(limit);
+        for (int i=offset; i < Math.min(offset + limit, COUNT); i++) ret.add(i);
+        return ret;
+    }
+
+    @Test
+    void prefetch() {
+        final AtomicInteger highest = new AtomicInteger(-1);
+        PaginatedResult<Integer> result = new PaginatedResult<>((int limit, int offset) -> {
+            highest.accumulateAndGet(offset / limit, Math::max);
+            return page(limit, offset);
+        }, 10);
+
+        Iterator<Integer> iter = result.iterator(3);
+        int expect = 0;
+        while (iter.hasNext()) {
+            int page = expect / 10;
+            assertEquals(expect++, (int) iter.next());
+            assertTrue(highest.get() <= page + 3, "Fetched more than 3 pages ahead");
+        }
+        assertEquals(COUNT, expect);
+    }
+
+    @Test
+    void parallelStream() {
+        final List<Integer> expect = IntStream.range(0, COUNT).boxed().collect(Collectors.toList());
+        for (int limit : new int[] { 1, 7, 10, 17, 1003, 2000 }) {
+            PaginatedResult<Integer> result = new PaginatedResult<>(PaginatedResultTest::page, limit);
+            assertEquals(expect, result.stream().collect(Collectors.toList()));
+            assertEquals(expect, result.parallelStream().collect(Collectors.toList()));
+        }
+    }
+
+}